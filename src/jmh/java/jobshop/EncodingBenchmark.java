@@ -0,0 +1,30 @@
+package jobshop;
+
+import jobshop.encodings.ResourceOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/** Decoding and copy of the encodings. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EncodingBenchmark {
+
+    @Benchmark
+    public Schedule jobNumbersToSchedule(Solutions solutions) {
+        return solutions.jobNumbers.toSchedule();
+    }
+
+    @Benchmark
+    public Schedule resourceOrderToSchedule(Solutions solutions) {
+        return solutions.order.toSchedule();
+    }
+
+    @Benchmark
+    public ResourceOrder resourceOrderCopy(Solutions solutions) {
+        return solutions.order.copy();
+    }
+}
@@ -0,0 +1,21 @@
+package jobshop;
+
+import jobshop.solvers.DescentSolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Neighborhood of a resource order, as used by the descent and taboo solvers. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NeighborhoodBenchmark {
+
+    @Benchmark
+    public List<?> blocksOfCriticalPath(Solutions solutions) {
+        return DescentSolver.blocksOfCriticalPath(solutions.order);
+    }
+}
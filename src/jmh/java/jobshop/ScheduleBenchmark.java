@@ -0,0 +1,31 @@
+package jobshop;
+
+import jobshop.encodings.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Queries on a schedule. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScheduleBenchmark {
+
+    @Benchmark
+    public int makespan(Solutions solutions) {
+        return solutions.schedule.makespan();
+    }
+
+    @Benchmark
+    public List<Task> criticalPath(Solutions solutions) {
+        return solutions.schedule.criticalPath();
+    }
+
+    @Benchmark
+    public boolean isValid(Solutions solutions) {
+        return solutions.schedule.isValid();
+    }
+}
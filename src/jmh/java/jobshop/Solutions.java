@@ -0,0 +1,41 @@
+package jobshop;
+
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.GreedySolver;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * A solution of an instance in all encodings, shared by the benchmarks.
+ *
+ * Instances go from small (ft06, 6x6) to large (ta71, 100x20). The solution is the one given by the EST_LRPT greedy
+ * solver, so that its critical path looks like the ones met during a local search.
+ * Benchmarks must be run from the root of the project for the instances to be found.
+ */
+@State(Scope.Benchmark)
+public class Solutions {
+
+    @Param({"ft06", "la21", "ta51", "ta71"})
+    public String instanceName;
+
+    public Instance instance;
+    public Schedule schedule;
+    public ResourceOrder order;
+    public JobNumbers jobNumbers;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        instance = Instance.fromFile(Paths.get("instances/" + instanceName));
+        Result result = new GreedySolver(GreedySolver.PriorityRule.EST_LRPT).solve(instance, Long.MAX_VALUE);
+        schedule = result.schedule;
+        order = new ResourceOrder(schedule);
+        jobNumbers = new JobNumbers(schedule);
+    }
+}
@@ -0,0 +1,43 @@
+package jobshop.solvers;
+
+import jobshop.Solutions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/** Throughput of the simulated annealing, in moves (accepted or not) per second. A hot annealing, at its initial
+ * temperature, accepts many moves and spends its time updating heads and tails, while a cold one rejects most moves
+ * at the cost of an estimate. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AnnealingBenchmark {
+
+    @State(Scope.Thread)
+    public static class Run {
+
+        @Param({"hot", "cold"})
+        public String phase;
+
+        AnnealingSolver.Annealing annealing;
+
+        @Setup(Level.Iteration)
+        public void setup(Solutions solutions) {
+            annealing = new AnnealingSolver.Annealing(solutions.order, 0);
+            double initial = annealing.initialTemperature();
+            annealing.temperature = phase.equals("hot") ? initial : AnnealingSolver.FINAL_TEMPERATURE;
+        }
+    }
+
+    @Benchmark
+    public boolean step(Run run) {
+        return run.annealing.step();
+    }
+}
@@ -1,7 +1,12 @@
 package jobshop;
 
+import jobshop.encodings.EvaluationBuffers;
+
 public abstract class Encoding {
 
+    /** Returned by bounded evaluations whose makespan reaches the bound, and by encodings without valid schedule. */
+    public static final int EXCEEDED = Integer.MAX_VALUE;
+
     public final Instance instance;
 
     public Encoding(Instance instance) {
@@ -9,4 +14,15 @@ public abstract class Encoding {
     }
 
     public abstract Schedule toSchedule();
+
+    /** Makespan of the schedule given by toSchedule(), computed without building it on the buffers of the current
+     * thread. EXCEEDED if the encoding has no valid schedule. */
+    public int makespan() {
+        return makespan(EXCEEDED, EvaluationBuffers.local());
+    }
+
+    /** Makespan of the schedule given by toSchedule() if it is smaller than `bound`, EXCEEDED otherwise.
+     * The evaluation stops as soon as a lower bound of the makespan reaches `bound`, so that evaluating a bad solution
+     * against a good bound is cheap. Uses the given scratch buffers and allocates nothing. */
+    public abstract int makespan(int bound, EvaluationBuffers buffers);
 }
@@ -3,11 +3,8 @@ package jobshop;
 import jobshop.encodings.Task;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.Scanner;
-import java.util.stream.Collectors;
+import java.util.Arrays;
 
 public class Instance {
 
@@ -22,6 +19,14 @@ public class Instance {
 
     final int[][] durations;
     final int[][] machines;
+    /** tasksWithMachine[job][machine] is the index of the task of the job that uses the machine, -1 if none */
+    private int[][] tasksWithMachine;
+    /** remainingDurations[job][task] is the total duration of the tasks of the job after the given one */
+    private int[][] remainingDurations;
+    /** total duration of the tasks of each machine */
+    private int[] machineLoads;
+    /** lower bound of the makespan of any schedule */
+    private int lowerBound;
 
     public int duration(int job, int task) {
         return durations[job][task];
@@ -38,11 +43,25 @@ public class Instance {
 
     /** among the tasks of the given job, returns the task index that uses the given machine. */
     public int task_with_machine(int job, int wanted_machine) {
-        for(int task = 0 ; task < numTasks ; task++) {
-            if(machine(job, task) == wanted_machine)
-                return task;
-        }
-        throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        int task = tasksWithMachine[job][wanted_machine];
+        if(task == -1)
+            throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        return task;
+    }
+
+    /** Total duration of the tasks that follow the given one in its job. */
+    public int remainingDuration(int job, int task) {
+        return remainingDurations[job][task];
+    }
+
+    /** Total duration of the tasks executed on the given machine. */
+    public int machineLoad(int machine) {
+        return machineLoads[machine];
+    }
+
+    /** Lower bound of the makespan of any schedule of this instance : a schedule reaching it is optimal. */
+    public int lowerBound() {
+        return lowerBound;
     }
 
     Instance(int numJobs, int numTasks) {
@@ -54,26 +73,32 @@ public class Instance {
         machines = new int[numJobs][numTasks];
     }
 
-    /** Parses a instance from a file. */
-    public static Instance fromFile(Path path) throws IOException {
-        Iterator<String> lines = Files.readAllLines(path).stream()
-                .filter(l -> !l.startsWith("#"))
-                .collect(Collectors.toList())
-                .iterator();
-
-        Scanner header = new Scanner(lines.next());
-        int num_jobs = header.nextInt();
-        int num_tasks = header.nextInt();
-        Instance pb = new Instance(num_jobs, num_tasks);
-
-        for(int job = 0 ; job<num_jobs ; job++) {
-            Scanner line = new Scanner(lines.next());
-            for(int task = 0 ; task < num_tasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
+    /** Builds the tables derived from machines and durations, once they are all known. */
+    void computeTables() {
+        tasksWithMachine = new int[numJobs][numMachines];
+        remainingDurations = new int[numJobs][numTasks];
+        machineLoads = new int[numMachines];
+        for(int job = 0 ; job < numJobs ; job++) {
+            Arrays.fill(tasksWithMachine[job], -1);
+            int remaining = 0;
+            for(int task = numTasks - 1 ; task >= 0 ; task--) {
+                tasksWithMachine[job][machine(job, task)] = task;
+                remainingDurations[job][task] = remaining;
+                remaining += duration(job, task);
+                machineLoads[machine(job, task)] += duration(job, task);
             }
         }
+        lowerBound = LowerBound.of(this);
+    }
+
+    /** Parses a instance from a file, either in the text format of the `instances` directory or in the binary format
+     * written by toBinaryFile(). */
+    public static Instance fromFile(Path path) throws IOException {
+        return InstanceParser.read(path);
+    }
 
-        return pb;
+    /** Writes this instance in a binary format that fromFile() loads by memory-mapping it, without any parsing. */
+    public void toBinaryFile(Path path) throws IOException {
+        InstanceParser.writeBinary(this, path);
     }
 }
@@ -0,0 +1,174 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes instance files.
+ *
+ * Two formats are supported, told apart by their first bytes:
+ *  - the text format of the `instances` directory: lines starting with '#' are comments, the first line holds the
+ *    number of jobs and of tasks, then each line gives the (machine, duration) pairs of a job. Anything after the
+ *    expected numbers on a line is ignored.
+ *  - a binary format made of big-endian ints: the magic number BINARY_MAGIC, the number of jobs and of tasks, the
+ *    machines of all tasks (job by job) and then their durations. Such files are memory-mapped and copied as is.
+ */
+final class InstanceParser {
+
+    /** "JSPB" */
+    static final int BINARY_MAGIC = 0x4A535042;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private InstanceParser() {}
+
+    static Instance read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // a file shorter than the magic number is a text file
+            }
+            if (!magic.hasRemaining() && magic.getInt(0) == BINARY_MAGIC)
+                return readBinary(channel, path);
+
+            channel.position(0);
+            return new TextReader(channel, path).read();
+        }
+    }
+
+    private static Instance readBinary(FileChannel channel, Path path) throws IOException {
+        IntBuffer ints = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).asIntBuffer();
+        if (ints.remaining() < 3)
+            throw new IOException(path + ": truncated binary instance");
+        ints.get(); // magic number
+        int numJobs = ints.get();
+        int numTasks = ints.get();
+        if (numJobs < 0 || numTasks < 0 || ints.remaining() != 2L * numJobs * numTasks)
+            throw new IOException(path + ": binary instance of unexpected size");
+
+        Instance pb = new Instance(numJobs, numTasks);
+        for (int job = 0; job < numJobs; job++)
+            ints.get(pb.machines[job]);
+        for (int job = 0; job < numJobs; job++)
+            ints.get(pb.durations[job]);
+        pb.computeTables();
+        return pb;
+    }
+
+    static void writeBinary(Instance pb, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4 * (3 + 2 * pb.numJobs * pb.numTasks));
+        // the int view shares the content of the buffer but not its position, which stays at 0
+        IntBuffer ints = buffer.asIntBuffer();
+        ints.put(BINARY_MAGIC).put(pb.numJobs).put(pb.numTasks);
+        for (int job = 0; job < pb.numJobs; job++)
+            ints.put(pb.machines[job]);
+        for (int job = 0; job < pb.numJobs; job++)
+            ints.put(pb.durations[job]);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /** Tokenizer of the text format, reading the file by chunks without decoding it into characters. */
+    private static final class TextReader {
+        private final FileChannel channel;
+        private final Path path;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private int line = 1;
+
+        TextReader(FileChannel channel, Path path) {
+            this.channel = channel;
+            this.path = path;
+            buffer.flip();
+        }
+
+        Instance read() throws IOException {
+            skipComments();
+            int numJobs = nextInt();
+            int numTasks = nextInt();
+            skipLine();
+            Instance pb = new Instance(numJobs, numTasks);
+
+            for (int job = 0; job < numJobs; job++) {
+                skipComments();
+                for (int task = 0; task < numTasks; task++) {
+                    pb.machines[job][task] = nextInt();
+                    pb.durations[job][task] = nextInt();
+                }
+                skipLine();
+            }
+            pb.computeTables();
+            return pb;
+        }
+
+        /** Next byte of the file, -1 at the end of the file. The byte is not consumed. */
+        private int peek() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read;
+                do {
+                    read = channel.read(buffer);
+                } while (read == 0);
+                buffer.flip();
+                if (read < 0)
+                    return -1;
+            }
+            return buffer.get(buffer.position());
+        }
+
+        private void consume() {
+            buffer.position(buffer.position() + 1);
+        }
+
+        /** At the start of a line, skips comment lines (starting with '#') and blank lines. */
+        private void skipComments() throws IOException {
+            int c = peek();
+            while (c == '#' || c == '\n' || c == '\r') {
+                skipLine();
+                c = peek();
+            }
+        }
+
+        /** Skips the rest of the current line, including its end of line. */
+        private void skipLine() throws IOException {
+            int c;
+            while ((c = peek()) != -1) {
+                consume();
+                if (c == '\n') {
+                    line++;
+                    return;
+                }
+            }
+        }
+
+        /** Parses the next integer of the current line. */
+        private int nextInt() throws IOException {
+            int c = peek();
+            while (c == ' ' || c == '\t') {
+                consume();
+                c = peek();
+            }
+            boolean negative = c == '-';
+            if (negative) {
+                consume();
+                c = peek();
+            }
+            if (c < '0' || c > '9')
+                throw new IOException(path + ":" + line + ": expected an integer");
+            int value = 0;
+            while (c >= '0' && c <= '9') {
+                value = 10 * value + (c - '0');
+                consume();
+                c = peek();
+            }
+            return negative ? -value : value;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package jobshop;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Lower bounds of the makespan of an instance, computed once when the instance is built.
+ *
+ * The head of a task is the total duration of the tasks before it in its job, its tail the total duration of the
+ * tasks after it : no schedule can start it earlier than its head, nor end the schedule earlier than its tail after
+ * its end. On each machine, the makespan of the preemptive one-machine problem with these heads and tails is solved
+ * exactly by Jackson's rule, which always runs the available task with the largest tail. This bound dominates the
+ * load of the machine; the length of the longest job is a bound as well.
+ */
+final class LowerBound {
+
+    private LowerBound() {}
+
+    /** Best of the bounds below. */
+    static int of(Instance instance) {
+        return Math.max(jobLength(instance), Math.max(machineLoad(instance), jackson(instance)));
+    }
+
+    /** Total duration of the longest job. */
+    static int jobLength(Instance instance) {
+        int bound = 0;
+        for(int j = 0 ; j < instance.numJobs ; j++)
+            bound = Math.max(bound, instance.duration(j, 0) + instance.remainingDuration(j, 0));
+        return bound;
+    }
+
+    /** Total duration of the most loaded machine. */
+    static int machineLoad(Instance instance) {
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++)
+            bound = Math.max(bound, instance.machineLoad(m));
+        return bound;
+    }
+
+    /** Largest makespan of the preemptive one-machine problems with heads and tails, over all machines. */
+    static int jackson(Instance instance) {
+        int bound = 0;
+        int[] heads = new int[instance.numJobs];
+        int[] tails = new int[instance.numJobs];
+        int[] left = new int[instance.numJobs];
+        Integer[] byHead = new Integer[instance.numJobs];
+        PriorityQueue<Integer> available = new PriorityQueue<>(Math.max(1, instance.numJobs),
+                Comparator.comparingInt((Integer j) -> -tails[j]));
+
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            // tâches de la machine, une par job, avec leur tête et leur queue
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                int task = instance.task_with_machine(j, m);
+                left[j] = instance.duration(j, task);
+                tails[j] = instance.remainingDuration(j, task);
+                heads[j] = instance.duration(j, 0) + instance.remainingDuration(j, 0) - tails[j] - left[j];
+                byHead[j] = j;
+            }
+            Arrays.sort(byHead, Comparator.comparingInt((Integer j) -> heads[j]));
+
+            // règle de Jackson préemptive : la tâche disponible de plus grande queue s'exécute jusqu'à sa fin ou
+            // jusqu'à la prochaine arrivée
+            int time = 0;
+            int next = 0;
+            while(next < byHead.length || !available.isEmpty()) {
+                if(available.isEmpty())
+                    time = Math.max(time, heads[byHead[next]]);
+                while(next < byHead.length && heads[byHead[next]] <= time)
+                    available.add(byHead[next++]);
+                int job = available.peek();
+                int until = next < byHead.length ? Math.min(heads[byHead[next]], time + left[job]) : time + left[job];
+                left[job] -= until - time;
+                time = until;
+                if(left[job] == 0) {
+                    available.poll();
+                    bound = Math.max(bound, time + tails[job]);
+                }
+            }
+        }
+        return bound;
+    }
+}
@@ -7,6 +7,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 import jobshop.solvers.*;
@@ -19,7 +22,7 @@ import net.sourceforge.argparse4j.inf.Namespace;
 public class Main {
     //-t 1 --instance aaa1 ft06 ft10 ft20 la0 --solver basic random greedySPT greedyLRPT greedyEST_SPT greedyEST_LRPT descent taboo
     /** All solvers available in this program */
-    private static HashMap<String, Solver> solvers;
+    static HashMap<String, Solver> solvers;
     static {
         solvers = new HashMap<>();
         solvers.put("basic", new BasicSolver());
@@ -28,8 +31,20 @@ public class Main {
         solvers.put("LRPT", new GreedySolver(GreedySolver.PriorityRule.LRPT));
         solvers.put("EST_SPT", new GreedySolver(GreedySolver.PriorityRule.EST_SPT));
         solvers.put("EST_LRPT", new GreedySolver(GreedySolver.PriorityRule.EST_LRPT));
+        solvers.put("MWKR", new GreedySolver(GreedySolver.PriorityRule.MWKR));
+        solvers.put("MOPNR", new GreedySolver(GreedySolver.PriorityRule.MOPNR));
+        solvers.put("FIFO", new GreedySolver(GreedySolver.PriorityRule.FIFO));
+        solvers.put("GT_LRPT", new GreedySolver(GreedySolver.PriorityRule.LRPT, true));
+        solvers.put("GT_MOPNR", new GreedySolver(GreedySolver.PriorityRule.MOPNR, true));
         solvers.put("EST_LRPT_descent", new DescentSolver(GreedySolver.PriorityRule.EST_LRPT));
         solvers.put("taboo", new TabooSolver(500,100));
+        solvers.put("tsab", new TsabSolver(2500, 10, 5));
+        solvers.put("islands", new IslandSolver(new TsabSolver(2500, 10, 5), 200));
+        solvers.put("genetic", new GeneticSolver(100, GeneticSolver.Crossover.JOX, 0.1));
+        solvers.put("genetic_ppx", new GeneticSolver(100, GeneticSolver.Crossover.PPX, 0.1));
+        solvers.put("annealing", new AnnealingSolver());
+        solvers.put("grasp", new GraspSolver(2, GreedySolver.PriorityRule.LRPT, GreedySolver.PriorityRule.MWKR,
+                GreedySolver.PriorityRule.MOPNR));
 
         // add new solvers here
     }
@@ -44,6 +59,14 @@ public class Main {
                 .setDefault(1L)
                 .type(Long.class)
                 .help("Solver timeout in seconds for each instance");
+        parser.addArgument("--threads")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of threads each solver may use (results of the local searches do not depend on it)");
+        parser.addArgument("-p", "--parallel")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of (instance, solver) runs executed concurrently");
         parser.addArgument("--solver")
                 .nargs("+")
                 .required(true)
@@ -65,6 +88,7 @@ public class Main {
         PrintStream output = System.out;
 
         long solveTimeMs = ns.getLong("timeout") * 1000;
+        int threads = ns.getInt("threads");
 
         List<String> solversToTest = ns.getList("solver");
         for(String solverName : solversToTest) {
@@ -87,6 +111,9 @@ public class Main {
             instances.addAll(matches);
         }
 
+        // runs (instance, solver) pairs concurrently, each solver keeping its own --threads
+        ExecutorService executor = Executors.newFixedThreadPool(ns.getInt("parallel"));
+
         float[] runtimes = new float[solversToTest.size()];
         float[] distances = new float[solversToTest.size()];
 
@@ -102,22 +129,40 @@ public class Main {
             output.println();
 
 
+            // every (instance, solver) cell is submitted upfront, the pool bounds how many of them run concurrently
+            List<Instance> loaded = new ArrayList<>();
+            List<List<Future<Run>>> runs = new ArrayList<>();
             for(String instanceName : instances) {
-                int bestKnown = BestKnownResult.of(instanceName);
-
-
                 Path path = Paths.get("instances/", instanceName);
                 Instance instance = Instance.fromFile(path);
+                loaded.add(instance);
+
+                List<Future<Run>> row = new ArrayList<>();
+                for(String solverName : solversToTest) {
+                    Solver solver = solvers.get(solverName);
+                    row.add(executor.submit(() -> {
+                        long start = System.currentTimeMillis();
+                        long deadline = System.currentTimeMillis() + solveTimeMs;
+                        Result result = solver.solve(instance, deadline, threads);
+                        long runtime = System.currentTimeMillis() - start;
+                        return new Run(result, runtime);
+                    }));
+                }
+                runs.add(row);
+            }
+
+            // results are printed in the order of instances and solvers, whatever their completion order
+            for(int instanceId = 0 ; instanceId < instances.size() ; instanceId++) {
+                String instanceName = instances.get(instanceId);
+                Instance instance = loaded.get(instanceId);
+                int bestKnown = BestKnownResult.of(instanceName);
 
                 output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
 
                 for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-                    String solverName = solversToTest.get(solverId);
-                    Solver solver = solvers.get(solverName);
-                    long start = System.currentTimeMillis();
-                    long deadline = System.currentTimeMillis() + solveTimeMs;
-                    Result result = solver.solve(instance, deadline);
-                    long runtime = System.currentTimeMillis() - start;
+                    Run run = runs.get(instanceId).get(solverId).get();
+                    Result result = run.result;
+                    long runtime = run.runtime;
 
                     if(!result.schedule.isValid()) {
                         System.err.println("ERROR: solver returned an invalid schedule");
@@ -148,6 +193,19 @@ public class Main {
         } catch (Exception e) {
             e.printStackTrace();
             System.exit(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /** Outcome of one solver on one instance. */
+    private static class Run {
+        final Result result;
+        final long runtime;
+
+        Run(Result result, long runtime) {
+            this.result = result;
+            this.runtime = runtime;
         }
     }
 }
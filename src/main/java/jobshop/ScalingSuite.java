@@ -0,0 +1,141 @@
+package jobshop;
+
+import jobshop.encodings.ResourceOrder;
+import jobshop.solvers.GreedySolver;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs solvers on generated Taillard-like instances of growing sizes, to see how they scale.
+ *
+ * For each size, it reports the time taken by one evaluation (ResourceOrder to Schedule and makespan) of a greedy
+ * solution, then for each solver its runtime, the makespan found and the peak heap usage during the run.
+ * Solvers are run one at a time so that memory measures are not mixed up.
+ */
+public class ScalingSuite {
+
+    /** seeds of the generated instances, the same for all sizes */
+    private static final int TIME_SEED = 840612802;
+    private static final int MACHINE_SEED = 398197754;
+
+    public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newFor("jsp-scaling").build()
+                .defaultHelp(true)
+                .description("Runs solvers on generated instances of growing sizes.");
+
+        parser.addArgument("-t", "--timeout")
+                .setDefault(1L)
+                .type(Long.class)
+                .help("Solver timeout in seconds for each instance");
+        parser.addArgument("--threads")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of threads each solver may use");
+        parser.addArgument("--solver")
+                .nargs("+")
+                .setDefault(Arrays.asList("EST_LRPT", "EST_LRPT_descent", "taboo"))
+                .help("Solver(s) to use (space separated if more than one)");
+        parser.addArgument("--size")
+                .nargs("+")
+                .setDefault(Arrays.asList("15x15", "50x20", "100x20", "200x20", "500x20", "1000x20", "1000x50"))
+                .help("Instance sizes {num-jobs}x{num-machines} (space separated if more than one)");
+
+        Namespace ns = null;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+
+        PrintStream output = System.out;
+        long solveTimeMs = ns.getLong("timeout") * 1000;
+        int threads = ns.getInt("threads");
+        List<String> solversToTest = ns.getList("solver");
+        for(String solverName : solversToTest) {
+            if(!Main.solvers.containsKey(solverName)) {
+                System.err.println("ERROR: Solver \"" + solverName + "\" is not avalaible.");
+                System.err.println("       Available solvers: " + Main.solvers.keySet().toString());
+                System.exit(1);
+            }
+        }
+
+        output.printf("%-9s %7s %10s   %-18s %9s %9s %9s%n",
+                "size", "tasks", "eval(us)", "solver", "runtime", "makespan", "heap(MB)");
+        for(String size : ns.<String>getList("size")) {
+            String[] dims = size.split("x");
+            if(dims.length != 2) {
+                System.err.println("ERROR: size \"" + size + "\" is not of the form {num-jobs}x{num-machines}");
+                System.exit(1);
+            }
+            Instance instance = TaillardGenerator.generate(Integer.parseInt(dims[0]), Integer.parseInt(dims[1]),
+                    TIME_SEED, MACHINE_SEED);
+            double evaluationTime = evaluationTimeMicros(instance);
+
+            for(String solverName : solversToTest) {
+                output.printf("%-9s %7d %10.1f   %-18s ",
+                        size, instance.numJobs * instance.numTasks, evaluationTime, solverName);
+                output.flush();
+
+                System.gc();
+                resetPeakHeapUsage();
+                long start = System.currentTimeMillis();
+                try {
+                    Result result = Main.solvers.get(solverName).solve(instance, start + solveTimeMs, threads);
+                    long runtime = System.currentTimeMillis() - start;
+                    output.printf("%9d %9d %9.1f%n", runtime, result.schedule.makespan(), peakHeapUsage() / 1e6);
+                } catch (OutOfMemoryError e) {
+                    // the point of this suite is to find the sizes a solver cannot handle
+                    output.printf("%9s %9s %9.1f%n", "-", "OOM", peakHeapUsage() / 1e6);
+                }
+            }
+        }
+    }
+
+    /** Average time in microseconds of the evaluation of a greedy solution, measured for about 200 ms after as much
+     * time of warm-up. */
+    private static double evaluationTimeMicros(Instance instance) {
+        Result greedy = new GreedySolver(GreedySolver.PriorityRule.EST_LRPT).solve(instance, Long.MAX_VALUE);
+        ResourceOrder order = new ResourceOrder(greedy.schedule);
+
+        double time = 0;
+        for(int round = 0 ; round < 2 ; round++) {
+            long makespans = 0;
+            int evaluations = 0;
+            long start = System.nanoTime();
+            while(System.nanoTime() - start < 200_000_000L) {
+                makespans += order.toSchedule().makespan();
+                evaluations++;
+            }
+            time = (System.nanoTime() - start) / 1e3 / evaluations;
+            assert makespans == (long) evaluations * greedy.schedule.makespan();
+        }
+        return time;
+    }
+
+    private static void resetPeakHeapUsage() {
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        }
+    }
+
+    /** Sum of the peak usages of the heap memory pools since the last reset, in bytes. */
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+}
@@ -4,13 +4,16 @@ package jobshop;
 import jobshop.encodings.Task;
 
 import java.util.*;
-import java.util.stream.IntStream;
 
 public class Schedule {
     public final Instance pb;
     // start times of each job and task
     // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
     final int[][] times;
+    // for each task (identified by job * numTasks + task), the task whose end delays its start :
+    // its predecessor on the job if it ends right at the start of the task, its predecessor on the machine otherwise.
+    // -1 for tasks starting at time 0. Recorded by the encodings when building the schedule, computed on demand otherwise.
+    private int[] criticalPredecessors;
 
     public Schedule(Instance pb, int[][] times) {
         this.pb = pb;
@@ -20,11 +23,18 @@ public class Schedule {
         }
     }
 
+    /** Schedule with the critical predecessor of each task, as defined above, recorded while computing start times.
+     * The array is not copied and must not be modified afterwards. */
+    public Schedule(Instance pb, int[][] times, int[] criticalPredecessors) {
+        this(pb, times);
+        this.criticalPredecessors = criticalPredecessors;
+    }
+
     public int startTime(int job, int task) {
         return times[job][task];
     }
 
-    /** Returns true if this schedule is valid (no constraint is violated) */
+    /** Returns true if this schedule is valid (no constraint is violated). Runs in O(numJobs.numTasks.log(numJobs)). */
     public boolean isValid() {
         for(int j = 0 ; j<pb.numJobs ; j++) {
             for(int t = 1 ; t<pb.numTasks ; t++) {
@@ -37,18 +47,20 @@ public class Schedule {
             }
         }
 
+        // on each machine, tasks sorted by start time (then end time) must not overlap their successor.
+        // Each task is encoded as (start << 32 | end) so that sorting the encoded values sorts the tasks.
+        long[] tasksOnMachine = new long[pb.numJobs];
         for (int machine = 0 ; machine < pb.numMachines ; machine++) {
-            for(int j1=0 ; j1<pb.numJobs ; j1++) {
-                int t1 = pb.task_with_machine(j1, machine);
-                for(int j2=j1+1 ; j2<pb.numJobs ; j2++) {
-                    int t2 = pb.task_with_machine(j2, machine);
-
-                    boolean t1_first = startTime(j1, t1) + pb.duration(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = startTime(j2, t2) + pb.duration(j2, t2) <= startTime(j1, t1);
-
-                    if(!t1_first && !t2_first)
-                        return false;
-                }
+            for(int j = 0 ; j < pb.numJobs ; j++) {
+                int t = pb.task_with_machine(j, machine);
+                tasksOnMachine[j] = (long) startTime(j, t) << 32 | (startTime(j, t) + pb.duration(j, t)) & 0xFFFFFFFFL;
+            }
+            Arrays.sort(tasksOnMachine);
+            for(int i = 0 ; i+1 < pb.numJobs ; i++) {
+                int end = (int) tasksOnMachine[i];
+                int nextStart = (int) (tasksOnMachine[i+1] >>> 32);
+                if(end > nextStart)
+                    return false;
             }
         }
 
@@ -86,50 +98,63 @@ public class Schedule {
     }
 
     public List<Task> criticalPath() {
-        // select task with greatest end time
-        Task ldd = IntStream.range(0, pb.numJobs)
-                .mapToObj(j -> new Task(j, pb.numTasks-1))
-                .max(Comparator.comparing(this::endTime))
-                .get();
-        assert endTime(ldd) == makespan();
-
-        // list that will contain the critical path.
-        // we construct it from the end, starting with the
-        // task that finishes last
-        LinkedList<Task> path = new LinkedList<>();
-        path.add(0,ldd);
-
-        // keep adding tasks to the path until the first task in the path
-        // starts a time 0
-        while(startTime(path.getFirst()) != 0) {
-            Task cur = path.getFirst();
-            int machine = pb.machine(cur.job, cur.task);
-
-            // will contain the task that was delaying the start
-            // of our current task
-            Optional<Task> latestPredecessor = Optional.empty();
-
-            if(cur.task > 0) {
-                // our current task has a predecessor on the job
-                Task predOnJob = new Task(cur.job, cur.task -1);
-
-                // if it was the delaying task, save it to predecessor
-                if(endTime(predOnJob) == startTime(cur))
-                    latestPredecessor = Optional.of(predOnJob);
-            }
-            if(!latestPredecessor.isPresent()) {
-                // no latest predecessor found yet, look among tasks executing on the same machine
-                latestPredecessor = IntStream.range(0, pb.numJobs)
-                        .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine)))
-                        .filter(t -> endTime(t) == startTime(cur))
-                        .findFirst();
-            }
-            // at this point we should have identified a latest predecessor, either on the job or on the machine
-            assert latestPredecessor.isPresent() && endTime(latestPredecessor.get()) == startTime(cur);
-            // insert predecessor at the beginning of the path
-            path.add(0, latestPredecessor.get());
+        int[] path = criticalPathIds();
+        List<Task> tasks = new ArrayList<>(path.length);
+        for(int op : path) {
+            tasks.add(new Task(op / pb.numTasks, op % pb.numTasks));
         }
-        assert isCriticalPath(path);
+        assert isCriticalPath(tasks);
+        return tasks;
+    }
+
+    /** Critical path as task identifiers (job * numTasks + task), from the task starting at time 0 to the first task
+     * (in job order) ending at the makespan. This is the same path as the one of criticalPath(). */
+    public int[] criticalPathIds() {
+        int[] predecessors = criticalPredecessors();
+
+        // the path ends with the first job whose last task ends at the makespan
+        int makespan = makespan();
+        int last = 0;
+        while(startTime(last, pb.numTasks-1) + pb.duration(last, pb.numTasks-1) != makespan)
+            last++;
+
+        // walk back along the critical predecessors, then store the path from its start
+        int length = 0;
+        for(int op = last * pb.numTasks + pb.numTasks-1 ; op != -1 ; op = predecessors[op])
+            length++;
+        int[] path = new int[length];
+        for(int op = last * pb.numTasks + pb.numTasks-1 ; op != -1 ; op = predecessors[op])
+            path[--length] = op;
         return path;
     }
+
+    private int[] criticalPredecessors() {
+        if(criticalPredecessors != null)
+            return criticalPredecessors;
+
+        // start times were not computed by an encoding : the predecessor on the machine is looked for among all jobs
+        int[] predecessors = new int[pb.numJobs * pb.numTasks];
+        for(int j = 0 ; j < pb.numJobs ; j++) {
+            for(int t = 0 ; t < pb.numTasks ; t++) {
+                int op = j * pb.numTasks + t;
+                int start = startTime(j, t);
+                predecessors[op] = -1;
+                if(start == 0)
+                    continue;
+                if(t > 0 && startTime(j, t-1) + pb.duration(j, t-1) == start) {
+                    predecessors[op] = op - 1;
+                    continue;
+                }
+                int machine = pb.machine(j, t);
+                for(int j2 = 0 ; j2 < pb.numJobs && predecessors[op] == -1 ; j2++) {
+                    int t2 = pb.task_with_machine(j2, machine);
+                    if(startTime(j2, t2) + pb.duration(j2, t2) == start)
+                        predecessors[op] = j2 * pb.numTasks + t2;
+                }
+                assert predecessors[op] != -1 : "no task delays the start of task ("+j+", "+t+")";
+            }
+        }
+        criticalPredecessors = predecessors;
+        return predecessors;
+    }
 }
@@ -4,4 +4,10 @@ public interface Solver {
 
     Result solve(Instance instance, long deadline);
 
+    /** Solves the instance using up to `threads` threads.
+     * Solvers that do not support parallelism ignore the number of threads. */
+    default Result solve(Instance instance, long deadline, int threads) {
+        return solve(instance, deadline);
+    }
+
 }
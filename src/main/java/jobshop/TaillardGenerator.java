@@ -0,0 +1,158 @@
+package jobshop;
+
+/**
+ * Generator of random instances from E. Taillard, "Benchmarks for basic scheduling problems" (EJOR, 1993).
+ *
+ * Durations are drawn uniformly in [1, 99] from a first seed, job by job. The machine sequence of each job starts as
+ * (0, 1, ..., m-1) and is shuffled with draws from a second seed. Both draws come from the portable linear
+ * congruential generator given in the paper, so that taillard(i) is exactly the instance ta{i} of the
+ * `instances` directory, and generate() can produce instances of any size.
+ */
+public final class TaillardGenerator {
+
+    /** numJobs, numMachines, time seed and machine seed of ta01 to ta80 */
+    private static final int[][] BENCHMARKS = {
+            { 15, 15,  840612802,  398197754}, // ta01
+            { 15, 15, 1314640371,  386720536}, // ta02
+            { 15, 15, 1227221349,  316176388}, // ta03
+            { 15, 15,  342269428, 1806358582}, // ta04
+            { 15, 15, 1603221416, 1501949241}, // ta05
+            { 15, 15, 1357584978, 1734077082}, // ta06
+            { 15, 15,   44531661, 1374316395}, // ta07
+            { 15, 15,  302545136, 2092186050}, // ta08
+            { 15, 15, 1153780144, 1393392374}, // ta09
+            { 15, 15,   73896786, 1544979948}, // ta10
+            { 20, 15,  533484900,  317419073}, // ta11
+            { 20, 15, 1894307698, 1474268163}, // ta12
+            { 20, 15,  874340513,  509669280}, // ta13
+            { 20, 15, 1124986343, 1209573668}, // ta14
+            { 20, 15, 1463788335,  529048107}, // ta15
+            { 20, 15, 1056908795,   25321885}, // ta16
+            { 20, 15,  195672285, 1717580117}, // ta17
+            { 20, 15,  961965583, 1353003786}, // ta18
+            { 20, 15, 1610169733, 1734469503}, // ta19
+            { 20, 15,  532794656,  998486810}, // ta20
+            { 20, 20, 1035939303,  773961798}, // ta21
+            { 20, 20,    5997802, 1872541150}, // ta22
+            { 20, 20, 1357503601,  722225039}, // ta23
+            { 20, 20,  806159563, 1166962073}, // ta24
+            { 20, 20, 1902815253, 1879990068}, // ta25
+            { 20, 20, 1503184031, 1850351876}, // ta26
+            { 20, 20, 1032645967,   99711329}, // ta27
+            { 20, 20,  229894219, 1158117804}, // ta28
+            { 20, 20,  823349822,  108033225}, // ta29
+            { 20, 20, 1297900341,  489486403}, // ta30
+            { 30, 15,   98640593, 1981283465}, // ta31
+            { 30, 15, 1839268120,  248890888}, // ta32
+            { 30, 15,  573875290, 2081512253}, // ta33
+            { 30, 15, 1670898570,  788294565}, // ta34
+            { 30, 15, 1118914567, 1074349202}, // ta35
+            { 30, 15,  178750207,  294279708}, // ta36
+            { 30, 15, 1549372605,  596993084}, // ta37
+            { 30, 15,  798174738,  151685779}, // ta38
+            { 30, 15,  553410952, 1329272528}, // ta39
+            { 30, 15, 1661531649, 1173386294}, // ta40
+            { 30, 20, 1841414609, 1357882888}, // ta41
+            { 30, 20, 2116959593, 1546338557}, // ta42
+            { 30, 20,  796392706, 1230864158}, // ta43
+            { 30, 20,  532496463,  254174057}, // ta44
+            { 30, 20, 2020525633,  978943053}, // ta45
+            { 30, 20,  524444252,  185526083}, // ta46
+            { 30, 20, 1569394691,  487269855}, // ta47
+            { 30, 20, 1460267840, 1631446539}, // ta48
+            { 30, 20,  198324822, 1937476577}, // ta49
+            { 30, 20,   38071822, 1541985579}, // ta50
+            { 50, 15,      17271,     718939}, // ta51
+            { 50, 15,  660481279,  449650254}, // ta52
+            { 50, 15,  352229765,  949737911}, // ta53
+            { 50, 15, 1197518780,  166840558}, // ta54
+            { 50, 15, 1376020303,  483922052}, // ta55
+            { 50, 15, 2106639239,  955932362}, // ta56
+            { 50, 15, 1765352082, 1209982549}, // ta57
+            { 50, 15, 1105092880, 1349003108}, // ta58
+            { 50, 15,  907248070,  919544535}, // ta59
+            { 50, 15, 2011630757, 1845447001}, // ta60
+            { 50, 20,    8493988,    2738939}, // ta61
+            { 50, 20, 1991925010,  709517751}, // ta62
+            { 50, 20,  342093237,  786960785}, // ta63
+            { 50, 20, 1634043183,  973178279}, // ta64
+            { 50, 20,  341706507,  286513148}, // ta65
+            { 50, 20,  320167954, 1411193018}, // ta66
+            { 50, 20, 1089696753,  298068750}, // ta67
+            { 50, 20,  433032965, 1589656152}, // ta68
+            { 50, 20,  615974477,  331205412}, // ta69
+            { 50, 20,  236150141,  592292984}, // ta70
+            {100, 20,  302034063, 1203569070}, // ta71
+            {100, 20, 1437643198, 1692025209}, // ta72
+            {100, 20, 1792475497, 1039908559}, // ta73
+            {100, 20, 1647273132, 1012841433}, // ta74
+            {100, 20,  696480901, 1689682358}, // ta75
+            {100, 20, 1785569423, 1092647459}, // ta76
+            {100, 20,  117806902,  739059626}, // ta77
+            {100, 20, 1639154709, 1319962509}, // ta78
+            {100, 20, 2007423389,  749368241}, // ta79
+            {100, 20,  682761130,  262763021}, // ta80
+    };
+
+    private TaillardGenerator() {}
+
+    /** Returns the instance ta{number} of Taillard's benchmark, for number in [1, 80]. */
+    public static Instance taillard(int number) {
+        if(number < 1 || number > BENCHMARKS.length)
+            throw new IllegalArgumentException("No Taillard instance ta" + number);
+        int[] b = BENCHMARKS[number - 1];
+        return generate(b[0], b[1], b[2], b[3]);
+    }
+
+    /** Generates an instance with the given size and seeds (in [1, 2^31 - 2]). */
+    public static Instance generate(int numJobs, int numMachines, int timeSeed, int machineSeed) {
+        Instance pb = new Instance(numJobs, numMachines);
+
+        Lcg time = new Lcg(timeSeed);
+        for(int job = 0 ; job < numJobs ; job++) {
+            for(int task = 0 ; task < numMachines ; task++) {
+                pb.durations[job][task] = time.unif(1, 99);
+            }
+        }
+
+        Lcg machine = new Lcg(machineSeed);
+        for(int job = 0 ; job < numJobs ; job++) {
+            int[] machines = pb.machines[job];
+            for(int task = 0 ; task < numMachines ; task++) {
+                machines[task] = task;
+            }
+            for(int task = 0 ; task < numMachines ; task++) {
+                int other = machine.unif(task, numMachines - 1);
+                int tmp = machines[task];
+                machines[task] = machines[other];
+                machines[other] = tmp;
+            }
+        }
+        pb.computeTables();
+        return pb;
+    }
+
+    /** Taillard's generator : x = 16807 x mod (2^31 - 1), computed without overflow with Schrage's method. */
+    private static final class Lcg {
+        private static final int M = Integer.MAX_VALUE;
+        private static final int A = 16807;
+        private static final int Q = M / A;  // 127773
+        private static final int R = M % A;  // 2836
+
+        private int seed;
+
+        Lcg(int seed) {
+            this.seed = seed;
+        }
+
+        /** Next value, drawn uniformly in [low, high]. */
+        int unif(int low, int high) {
+            int k = seed / Q;
+            seed = A * (seed % Q) - k * R;
+            if(seed < 0)
+                seed += M;
+            double value01 = seed / (double) M;
+            return low + (int) (value01 * (high - low + 1));
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package jobshop.encodings;
+
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.Schedule;
+
+import java.util.Arrays;
+
+/** Représentation par graphe disjonctif.
+ *
+ * Tasks are identified by job * numTasks + task. Job arcs are implicit (task i precedes task i+1 of the same job)
+ * while machine arcs are given by the previousOnMachine/nextOnMachine arrays.
+ * For every task the graph maintains its head (earliest start time) and its tail (length of the longest path from
+ * the end of the task to the end of the schedule) together with a topological order of all tasks.
+ *
+ * When two adjacent tasks of a machine are swapped, the topological order is repaired on the region between the two
+ * tasks only (Pearce and Kelly), and heads (resp. tails) are only recomputed for the tasks that follow (resp. precede)
+ * the swapped tasks and whose value actually changes.
+ */
+public class DisjunctiveGraph extends Encoding {
+
+    /** duration of each task */
+    private final int[] durations;
+
+    /** for each machine, the first task executed on it */
+    private final int[] firstOnMachine;
+
+    /** for each task, the task executed just before (resp. after) it on its machine, -1 if none */
+    private final int[] previousOnMachine;
+    private final int[] nextOnMachine;
+
+    /** earliest start time of each task */
+    private final int[] heads;
+    /** length of the longest path from the end of each task to the end of the schedule */
+    private final int[] tails;
+
+    /** all tasks in topological order, position[t] being the index of task t in topologicalOrder */
+    private final int[] topologicalOrder;
+    private final int[] position;
+
+    /** scratch space for the incremental updates: visit marks, stack, collected tasks and their positions */
+    private final int[] visited;
+    private int visitStamp = 0;
+    private final int[] stack;
+    private final int[] collected;
+    private final int[] slots;
+
+    /** bit set of the positions of tasks whose head or tail must be recomputed,
+     * only words between firstPendingWord and lastPendingWord may be non zero */
+    private final long[] pending;
+    private int firstPendingWord = Integer.MAX_VALUE;
+    private int lastPendingWord = -1;
+
+    /** Creates the graph of the given resource order. Throws a RuntimeException if the order has a cycle. */
+    public DisjunctiveGraph(ResourceOrder order) {
+        this(order.instance);
+
+        if(!order.topologicalOrder(topologicalOrder))
+            throw new RuntimeException("A cyclic resource order has no disjunctive graph");
+
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int previous = -1;
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                int op = order.taskId(m, i);
+                link(m, previous, op);
+                previous = op;
+            }
+            nextOnMachine[previous] = -1;
+        }
+        computeHeadsAndTails();
+    }
+
+    /** Creates the graph of the given job numbers: tasks are executed on each machine in their order of appearance. */
+    public DisjunctiveGraph(JobNumbers jobNumbers) {
+        this(jobNumbers.instance);
+
+        // for each job, the next task to appear ; for each machine, the last task that appeared on it
+        int[] nextTask = new int[instance.numJobs];
+        int[] lastOnMachine = new int[instance.numMachines];
+        Arrays.fill(lastOnMachine, -1);
+
+        // the job numbers sequence is itself a topological order
+        for(int i = 0 ; i < jobNumbers.jobs.length ; i++) {
+            int job = jobNumbers.jobs[i];
+            int op = job * instance.numTasks + nextTask[job]++;
+            int machine = instance.machine(job, op % instance.numTasks);
+            link(machine, lastOnMachine[machine], op);
+            lastOnMachine[machine] = op;
+            topologicalOrder[i] = op;
+        }
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            nextOnMachine[lastOnMachine[m]] = -1;
+        }
+        computeHeadsAndTails();
+    }
+
+    private DisjunctiveGraph(Instance instance) {
+        super(instance);
+        int numOps = instance.numJobs * instance.numTasks;
+
+        durations = new int[numOps];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                durations[j * instance.numTasks + t] = instance.duration(j, t);
+            }
+        }
+        firstOnMachine = new int[instance.numMachines];
+        previousOnMachine = new int[numOps];
+        nextOnMachine = new int[numOps];
+        heads = new int[numOps];
+        tails = new int[numOps];
+        topologicalOrder = new int[numOps];
+        position = new int[numOps];
+        visited = new int[numOps];
+        collected = new int[numOps];
+        slots = new int[numOps];
+        stack = new int[numOps];
+        pending = new long[(numOps + 63) / 64];
+    }
+
+    /** Places `op` right after `previous` (-1 if `op` is the first one) on the given machine. */
+    private void link(int machine, int previous, int op) {
+        previousOnMachine[op] = previous;
+        if(previous == -1)
+            firstOnMachine[machine] = op;
+        else
+            nextOnMachine[previous] = op;
+    }
+
+    /** Computes positions, heads and tails of all tasks from the topological order. */
+    private void computeHeadsAndTails() {
+        for(int i = 0 ; i < topologicalOrder.length ; i++) {
+            int op = topologicalOrder[i];
+            position[op] = i;
+            heads[op] = computeHead(op);
+        }
+        for(int i = topologicalOrder.length - 1 ; i >= 0 ; i--) {
+            int op = topologicalOrder[i];
+            tails[op] = computeTail(op);
+        }
+    }
+
+    private int computeHead(int op) {
+        int head = 0;
+        if(op % instance.numTasks != 0)
+            head = heads[op - 1] + durations[op - 1];
+        int previous = previousOnMachine[op];
+        if(previous != -1)
+            head = Math.max(head, heads[previous] + durations[previous]);
+        return head;
+    }
+
+    private int computeTail(int op) {
+        int tail = 0;
+        if((op + 1) % instance.numTasks != 0)
+            tail = durations[op + 1] + tails[op + 1];
+        int next = nextOnMachine[op];
+        if(next != -1)
+            tail = Math.max(tail, durations[next] + tails[next]);
+        return tail;
+    }
+
+    /** Earliest start time of the given task. */
+    public int head(int task) {
+        return heads[task];
+    }
+
+    /** Length of the longest path from the end of the given task to the end of the schedule. */
+    public int tail(int task) {
+        return tails[task];
+    }
+
+    public int duration(int task) {
+        return durations[task];
+    }
+
+    /** First task executed on the given machine. */
+    public int firstOnMachine(int machine) {
+        return firstOnMachine[machine];
+    }
+
+    /** Task executed just before the given one on its machine, -1 if none. */
+    public int previousOnMachine(int task) {
+        return previousOnMachine[task];
+    }
+
+    /** Task executed just after the given one on its machine, -1 if none. */
+    public int nextOnMachine(int task) {
+        return nextOnMachine[task];
+    }
+
+    /** Length of the longest path of the graph. */
+    @Override
+    public int makespan() {
+        int makespan = 0;
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            int last = (j + 1) * instance.numTasks - 1;
+            makespan = Math.max(makespan, heads[last] + durations[last]);
+        }
+        return makespan;
+    }
+
+    /** Heads are always up to date : the makespan is read from them. */
+    @Override
+    public int makespan(int bound, EvaluationBuffers buffers) {
+        int makespan = makespan();
+        return makespan < bound ? makespan : EXCEEDED;
+    }
+
+    /** Exchanges the given task with the one that follows it on its machine.
+     * Returns false and leaves the graph unchanged if there is no such task or if the swap would create a cycle. */
+    public boolean swap(int task) {
+        int u = task;
+        int v = nextOnMachine[u];
+        if(v == -1)
+            return false;
+
+        relinkSwap(u, v);
+        if(!repairTopologicalOrder(u, v)) {
+            // a cycle would appear, put the tasks back in place
+            relinkSwap(v, u);
+            return false;
+        }
+        updateHeads(v, u);
+        updateTails(u, v);
+        return true;
+    }
+
+    /** Updates machine links so that v, formerly right after u, is now right before it. */
+    private void relinkSwap(int u, int v) {
+        int before = previousOnMachine[u];
+        int after = nextOnMachine[v];
+        if(before == -1)
+            firstOnMachine[instance.machine(v / instance.numTasks, v % instance.numTasks)] = v;
+        else
+            nextOnMachine[before] = v;
+        if(after != -1)
+            previousOnMachine[after] = u;
+        previousOnMachine[v] = before;
+        nextOnMachine[v] = u;
+        previousOnMachine[u] = v;
+        nextOnMachine[u] = after;
+    }
+
+    /** Restores the topological order after the arc u -> v has been replaced by v -> u.
+     * Only the tasks placed between u and v in the order are visited. Returns false if the graph now has a cycle. */
+    private boolean repairTopologicalOrder(int u, int v) {
+        int lower = position[u];
+        int upper = position[v];
+
+        // tasks reachable from u and placed before v, then tasks reaching v and placed after u
+        visitStamp++;
+        int numForward = 0;
+        int top = 0;
+        stack[top++] = u;
+        visited[u] = visitStamp;
+        while(top > 0) {
+            int op = stack[--top];
+            collected[numForward++] = op;
+            for(int next = 0 ; next < 2 ; next++) {
+                int succ = next == 0 ? nextOnJob(op) : nextOnMachine[op];
+                if(succ == -1)
+                    continue;
+                if(succ == v)
+                    return false;
+                if(visited[succ] != visitStamp && position[succ] < upper) {
+                    visited[succ] = visitStamp;
+                    stack[top++] = succ;
+                }
+            }
+        }
+        int numCollected = numForward;
+        stack[top++] = v;
+        visited[v] = visitStamp;
+        while(top > 0) {
+            int op = stack[--top];
+            collected[numCollected++] = op;
+            for(int prev = 0 ; prev < 2 ; prev++) {
+                int pred = prev == 0 ? previousOnJob(op) : previousOnMachine[op];
+                if(pred != -1 && visited[pred] != visitStamp && position[pred] > lower) {
+                    visited[pred] = visitStamp;
+                    stack[top++] = pred;
+                }
+            }
+        }
+
+        // the positions freed by all collected tasks are refilled with tasks reaching v, then tasks reachable from u,
+        // each group keeping its former relative order
+        for(int i = 0 ; i < numCollected ; i++) {
+            slots[i] = position[collected[i]];
+        }
+        sortByPosition(0, numForward);
+        sortByPosition(numForward, numCollected);
+        Arrays.sort(slots, 0, numCollected);
+        int slot = 0;
+        for(int i = numForward ; i < numCollected ; i++) {
+            place(collected[i], slots[slot++]);
+        }
+        for(int i = 0 ; i < numForward ; i++) {
+            place(collected[i], slots[slot++]);
+        }
+        return true;
+    }
+
+    /** Sorts collected[from..to) by increasing position, through the positions themselves. */
+    private void sortByPosition(int from, int to) {
+        for(int i = from ; i < to ; i++) {
+            collected[i] = position[collected[i]];
+        }
+        Arrays.sort(collected, from, to);
+        for(int i = from ; i < to ; i++) {
+            collected[i] = topologicalOrder[collected[i]];
+        }
+    }
+
+    private void place(int op, int pos) {
+        position[op] = pos;
+        topologicalOrder[pos] = op;
+    }
+
+    /** Recomputes heads, in topological order, of the two swapped tasks and of all successors whose head changes.
+     * The successors of the swapped tasks are always visited since the swapped tasks changed place.
+     * Tasks to visit are marked in the `pending` bit set, indexed by position, which is scanned forward. */
+    private void updateHeads(int a, int b) {
+        markPending(a);
+        markPending(b);
+        int word = Math.min(position[a], position[b]) >>> 6;
+        while(word <= lastPendingWord) {
+            long bits = pending[word];
+            if(bits == 0) {
+                word++;
+                continue;
+            }
+            int bit = Long.numberOfTrailingZeros(bits);
+            pending[word] = bits & ~(1L << bit);
+            int op = topologicalOrder[(word << 6) + bit];
+
+            int head = computeHead(op);
+            if(head == heads[op] && op != a && op != b)
+                continue;
+            heads[op] = head;
+            // successors are placed after op in the topological order and will be met later in the scan
+            int succ = nextOnJob(op);
+            if(succ != -1)
+                markPending(succ);
+            succ = nextOnMachine[op];
+            if(succ != -1)
+                markPending(succ);
+        }
+        firstPendingWord = Integer.MAX_VALUE;
+        lastPendingWord = -1;
+    }
+
+    /** Recomputes tails, in reverse topological order, of the two swapped tasks and of all predecessors whose tail
+     * changes. The predecessors of the swapped tasks are always visited since the swapped tasks changed place.
+     * Tasks to visit are marked in the `pending` bit set, indexed by position, which is scanned backward. */
+    private void updateTails(int a, int b) {
+        markPending(a);
+        markPending(b);
+        int word = Math.max(position[a], position[b]) >>> 6;
+        while(word >= firstPendingWord) {
+            long bits = pending[word];
+            if(bits == 0) {
+                word--;
+                continue;
+            }
+            int bit = 63 - Long.numberOfLeadingZeros(bits);
+            pending[word] = bits & ~(1L << bit);
+            int op = topologicalOrder[(word << 6) + bit];
+
+            int tail = computeTail(op);
+            if(tail == tails[op] && op != a && op != b)
+                continue;
+            tails[op] = tail;
+            // predecessors are placed before op in the topological order and will be met later in the scan
+            int pred = previousOnJob(op);
+            if(pred != -1)
+                markPending(pred);
+            pred = previousOnMachine[op];
+            if(pred != -1)
+                markPending(pred);
+        }
+        firstPendingWord = Integer.MAX_VALUE;
+        lastPendingWord = -1;
+    }
+
+    /** Marks the given task as pending, extending the range of words of `pending` that may contain set bits. */
+    private void markPending(int op) {
+        int pos = position[op];
+        int word = pos >>> 6;
+        pending[word] |= 1L << pos;
+        lastPendingWord = Math.max(lastPendingWord, word);
+        firstPendingWord = Math.min(firstPendingWord, word);
+    }
+
+    private int previousOnJob(int op) {
+        return op % instance.numTasks == 0 ? -1 : op - 1;
+    }
+
+    private int nextOnJob(int op) {
+        return (op + 1) % instance.numTasks == 0 ? -1 : op + 1;
+    }
+
+    /** Resource order with the same machine sequences. */
+    public ResourceOrder toResourceOrder() {
+        ResourceOrder order = new ResourceOrder(instance);
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int op = firstOnMachine[m] ; op != -1 ; op = nextOnMachine[op]) {
+                order.setTask(m, order.nextFreeSlot[m]++, new Task(op / instance.numTasks, op % instance.numTasks));
+            }
+        }
+        return order;
+    }
+
+    /** Job numbers listing the tasks in topological order, which yields the same machine sequences. */
+    public JobNumbers toJobNumbers() {
+        JobNumbers jobNumbers = new JobNumbers(instance);
+        for(int op : topologicalOrder) {
+            jobNumbers.jobs[jobNumbers.nextToSet++] = op / instance.numTasks;
+        }
+        return jobNumbers;
+    }
+
+    @Override
+    public Schedule toSchedule() {
+        int[][] startTimes = new int[instance.numJobs][instance.numTasks];
+        int[] criticalPredecessors = new int[heads.length];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                int op = j * instance.numTasks + t;
+                startTimes[j][t] = heads[op];
+                boolean delayedByJob = t > 0 && heads[op - 1] + durations[op - 1] == heads[op];
+                criticalPredecessors[op] = heads[op] == 0 ? -1 : delayedByJob ? op - 1 : previousOnMachine[op];
+            }
+        }
+        return new Schedule(instance, startTimes, criticalPredecessors);
+    }
+}
@@ -0,0 +1,57 @@
+package jobshop.encodings;
+
+import jobshop.Instance;
+
+/**
+ * Scratch arrays used by Encoding.makespan() to evaluate an encoding without building its schedule.
+ *
+ * Buffers grow to the largest instance they have been used for, so that a single object can be reused for any number
+ * of evaluations without allocating. They must not be used by two threads at the same time : evaluations that are not
+ * given buffers explicitly use the ones of the current thread, given by local().
+ */
+public final class EvaluationBuffers {
+
+    private static final ThreadLocal<EvaluationBuffers> LOCAL = ThreadLocal.withInitial(EvaluationBuffers::new);
+
+    /** for each task (job * numTasks + task), its end time */
+    int[] ends = new int[0];
+    /** for each machine, the time at which it is released and the total duration of its tasks not scheduled yet */
+    int[] releaseTimeOfMachine = new int[0];
+    int[] remainingLoad = new int[0];
+    /** for each job, the index of its next task to schedule */
+    int[] nextTask = new int[0];
+    /** topological order of the tasks and scratch space of ResourceOrder.topologicalOrder() */
+    int[] sorted = new int[0];
+    int[] nextOnMachine = new int[0];
+    int[] inDegree = new int[0];
+
+    /** Buffers of the current thread. */
+    public static EvaluationBuffers local() {
+        return LOCAL.get();
+    }
+
+    /** Resets release times and remaining loads of the machines of the instance. */
+    void resetMachines(Instance instance) {
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            releaseTimeOfMachine[m] = 0;
+            remainingLoad[m] = instance.machineLoad(m);
+        }
+    }
+
+    /** Makes sure all buffers are large enough for the given instance. */
+    void ensureCapacity(Instance instance) {
+        int numOps = instance.numJobs * instance.numTasks;
+        if(ends.length < numOps) {
+            ends = new int[numOps];
+            sorted = new int[numOps];
+            nextOnMachine = new int[numOps];
+            inDegree = new int[numOps];
+        }
+        if(releaseTimeOfMachine.length < instance.numMachines) {
+            releaseTimeOfMachine = new int[instance.numMachines];
+            remainingLoad = new int[instance.numMachines];
+        }
+        if(nextTask.length < instance.numJobs)
+            nextTask = new int[instance.numJobs];
+    }
+}
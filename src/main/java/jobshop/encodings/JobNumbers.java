@@ -58,23 +58,59 @@ public class JobNumbers extends Encoding {
         // for each job, the first task that has not yet been scheduled
         int[] nextTask = new int[instance.numJobs];
 
-        // for each task, its start time
+        // last task (job * numTasks + task) scheduled on each machine, -1 if none
+        int[] lastOnMachine = new int[instance.numMachines];
+        Arrays.fill(lastOnMachine, -1);
+
+        // for each task, its start time and the task delaying it
         int[][] startTimes = new int[instance.numJobs][instance.numTasks];
+        int[] criticalPredecessors = new int[instance.numJobs * instance.numTasks];
 
         // compute the earliest start time for every task of every job
         for(int job : jobs) {
             int task = nextTask[job];
             int machine = instance.machine(job, task);
+            int op = job * instance.numTasks + task;
             // earliest start time for this task
-            int est = task == 0 ? 0 : startTimes[job][task-1] + instance.duration(job, task-1);
-            est = Math.max(est, nextFreeTimeResource[machine]);
+            int endOfPreviousOnJob = task == 0 ? 0 : startTimes[job][task-1] + instance.duration(job, task-1);
+            int est = Math.max(endOfPreviousOnJob, nextFreeTimeResource[machine]);
 
             startTimes[job][task] = est;
+            criticalPredecessors[op] = est == 0 ? -1 : est == endOfPreviousOnJob ? op - 1 : lastOnMachine[machine];
             nextFreeTimeResource[machine] = est + instance.duration(job, task);
+            lastOnMachine[machine] = op;
             nextTask[job] = task + 1;
         }
 
-        return new Schedule(instance, startTimes);
+        return new Schedule(instance, startTimes, criticalPredecessors);
+    }
+
+    @Override
+    public int makespan(int bound, EvaluationBuffers buffers) {
+        buffers.ensureCapacity(instance);
+        buffers.resetMachines(instance);
+        int[] endOfJob = buffers.ends;
+        int[] releaseTimeOfMachine = buffers.releaseTimeOfMachine;
+        int[] remainingLoad = buffers.remainingLoad;
+        int[] nextTask = buffers.nextTask;
+        Arrays.fill(endOfJob, 0, instance.numJobs, 0);
+        Arrays.fill(nextTask, 0, instance.numJobs, 0);
+
+        // same as toSchedule(), only keeping the end time of the last task of each job and machine
+        int makespan = 0;
+        for(int job : jobs) {
+            int task = nextTask[job]++;
+            int machine = instance.machine(job, task);
+            int end = Math.max(endOfJob[job], releaseTimeOfMachine[machine]) + instance.duration(job, task);
+            remainingLoad[machine] -= instance.duration(job, task);
+            // the rest of the job and the remaining tasks of the machine can only start after this task
+            if(end + Math.max(instance.remainingDuration(job, task), remainingLoad[machine]) >= bound)
+                return EXCEEDED;
+            endOfJob[job] = end;
+            releaseTimeOfMachine[machine] = end;
+            makespan = Math.max(makespan, end);
+        }
+        return makespan;
     }
 
     @Override
@@ -4,15 +4,16 @@ import jobshop.Encoding;
 import jobshop.Instance;
 import jobshop.Schedule;
 
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Optional;
 import java.util.stream.IntStream;
 
 public class ResourceOrder extends Encoding {
 
-    // for each machine m, taskByMachine[m] is an array of tasks to be
-    // executed on this machine in the same order
-    public final Task[][] tasksByMachine;
+    // for each machine m, the tasks to be executed on this machine in the same order,
+    // stored machine-major : taskIds[m * numJobs + i] is the identifier (job * numTasks + task)
+    // of the i-th task on machine m, or -1 if this slot has not been set yet
+    final int[] taskIds;
 
     // for each machine, indicate on many tasks have been initialized
     public final int[] nextFreeSlot;
@@ -22,8 +23,9 @@ public class ResourceOrder extends Encoding {
     {
         super(instance);
 
-        // matrix of null elements (null is the default value of objects)
-        tasksByMachine = new Task[instance.numMachines][instance.numJobs];
+        // no task set on any slot
+        taskIds = new int[instance.numMachines * instance.numJobs];
+        Arrays.fill(taskIds, -1);
 
         // no task scheduled on any machine (0 is the default value)
         nextFreeSlot = new int[instance.numMachines];
@@ -35,80 +37,215 @@ public class ResourceOrder extends Encoding {
         super(schedule.pb);
         Instance pb = schedule.pb;
 
-        this.tasksByMachine = new Task[pb.numMachines][];
+        this.taskIds = new int[pb.numMachines * pb.numJobs];
         this.nextFreeSlot = new int[instance.numMachines];
 
         for(int m = 0 ; m<schedule.pb.numMachines ; m++) {
             final int machine = m;
 
             // for thi machine, find all tasks that are executed on it and sort them by their start time
-            tasksByMachine[m] =
+            Task[] tasks =
                     IntStream.range(0, pb.numJobs) // all job numbers
                             .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
                             .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
-                            .toArray(Task[]::new); // as new array and store in tasksByMachine
+                            .toArray(Task[]::new); // as new array
+            for(int i = 0 ; i < pb.numJobs ; i++) {
+                setTask(m, i, tasks[i]);
+            }
 
             // indicate that all tasks have been initialized for machine m
             nextFreeSlot[m] = instance.numJobs;
         }
     }
 
+    /** Creates a resource order with the same content as the given one. */
+    private ResourceOrder(ResourceOrder other)
+    {
+        super(other.instance);
+
+        this.taskIds = new int[other.taskIds.length];
+        System.arraycopy(other.taskIds, 0, this.taskIds, 0, taskIds.length);
+        this.nextFreeSlot = new int[other.nextFreeSlot.length];
+        System.arraycopy(other.nextFreeSlot, 0, this.nextFreeSlot, 0, nextFreeSlot.length);
+    }
+
+    /** Identifier (job * numTasks + task) of the task at the given index on the given machine, -1 if not set. */
+    public int taskId(int machine, int index) {
+        return taskIds[machine * instance.numJobs + index];
+    }
+
+    /** Returns the task at the given index on the given machine, null if not set. */
+    public Task getTask(int machine, int index) {
+        int id = taskId(machine, index);
+        return id == -1 ? null : new Task(id / instance.numTasks, id % instance.numTasks);
+    }
+
+    /** Places the given task at the given index on the given machine. */
+    public void setTask(int machine, int index, Task task) {
+        taskIds[machine * instance.numJobs + index] = task.job * instance.numTasks + task.task;
+    }
+
+    /** Places the task with the given identifier (job * numTasks + task) at the given index on the given machine. */
+    public void setTaskId(int machine, int index, int id) {
+        taskIds[machine * instance.numJobs + index] = id;
+    }
+
+    /** Exchanges the tasks at the two given indices on the given machine. */
+    public void swap(int machine, int index1, int index2) {
+        int offset = machine * instance.numJobs;
+        int tmp = taskIds[offset + index1];
+        taskIds[offset + index1] = taskIds[offset + index2];
+        taskIds[offset + index2] = tmp;
+    }
+
+    /** Returns the index of the given task on the given machine, -1 if it is not there. */
+    public int indexOf(int machine, Task task) {
+        int id = task.job * instance.numTasks + task.task;
+        for(int i = 0 ; i < instance.numJobs ; i++) {
+            if(taskId(machine, i) == id)
+                return i;
+        }
+        return -1;
+    }
+
+    /** Fills `sorted` (of size numJobs * numTasks) with the identifiers of all tasks, in an order such that every task
+     * appears after its predecessors on its job and on its machine.
+     * Returns false if there is no such order, i.e., the resource order has a cyclic dependency. */
+    public boolean topologicalOrder(int[] sorted) {
+        int numOps = instance.numJobs * instance.numTasks;
+        return topologicalOrder(sorted, new int[numOps], new int[numOps]);
+    }
+
+    /** Same as topologicalOrder(int[]), with caller-provided scratch arrays of size numJobs * numTasks
+     * whose content is overwritten. This variant performs no allocation. */
+    public boolean topologicalOrder(int[] sorted, int[] nextOnMachine, int[] inDegree) {
+        int numOps = instance.numJobs * instance.numTasks;
+
+        // nextOnMachine : for each task (identified by job * numTasks + task), its successor on its machine
+        // (-1 if it is the last one)
+        // inDegree : for each task, number of predecessors (on its job and on its machine) that have not been sorted yet
+        Arrays.fill(inDegree, 0, numOps, 0);
+
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int previous = -1;
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                int op = taskId(m, i);
+                if(previous != -1) {
+                    nextOnMachine[previous] = op;
+                    inDegree[op]++;
+                }
+                previous = op;
+            }
+            nextOnMachine[previous] = -1;
+        }
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 1 ; t < instance.numTasks ; t++) {
+                inDegree[j * instance.numTasks + t]++;
+            }
+        }
+
+        // Kahn's algorithm, `sorted` is used as the queue of tasks whose predecessors have all been sorted:
+        // tasks before `head` are sorted, tasks between `head` and `tail` are ready
+        int tail = 0;
+        for(int op = 0 ; op < numOps ; op++) {
+            if(inDegree[op] == 0)
+                sorted[tail++] = op;
+        }
+        int head = 0;
+        while(head < tail) {
+            int op = sorted[head++];
+
+            // release the successors of the task on its job and on its machine
+            if((op + 1) % instance.numTasks != 0 && --inDegree[op + 1] == 0)
+                sorted[tail++] = op + 1;
+            int nextOp = nextOnMachine[op];
+            if(nextOp != -1 && --inDegree[nextOp] == 0)
+                sorted[tail++] = nextOp;
+        }
+
+        // if some tasks were never released, there is a cyclic dependency
+        return head == numOps;
+    }
+
     @Override
     public Schedule toSchedule() {
-        // indicate for each task that have been scheduled, its start time
+        int[] sorted = new int[instance.numJobs * instance.numTasks];
+        if(!topologicalOrder(sorted)) {
+            // there is a cyclic dependency and no solution for this resource ordering
+            return null;
+        }
+
+        // indicate for each task that have been scheduled, its start time and the task delaying it
         int [][] startTimes = new int [instance.numJobs][instance.numTasks];
+        int[] criticalPredecessors = new int[sorted.length];
 
-        // for each job, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByJob = new int[instance.numJobs];
+        // for each machine, earliest time at which the machine can be used and last task scheduled on it
+        int[] releaseTimeOfMachine = new int[instance.numMachines];
+        int[] lastOnMachine = new int[instance.numMachines];
 
-        // for each machine, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByMachine = new int[instance.numMachines];
+        // schedule tasks in topological order : their predecessors on job and machine are always already scheduled
+        for(int op : sorted) {
+            int job = op / instance.numTasks;
+            int task = op % instance.numTasks;
+            int machine = instance.machine(job, task);
 
-        // for each machine, earliest time at which the machine can be used
-        int[] releaseTimeOfMachine = new int[instance.numMachines];
+            // compute the earliest start time (est) of the task
+            int endOfPreviousOnJob = task == 0 ? 0 : startTimes[job][task-1] + instance.duration(job, task-1);
+            int est = Math.max(endOfPreviousOnJob, releaseTimeOfMachine[machine]);
+            startTimes[job][task] = est;
+            // the task is delayed by its predecessor on the job or, failing that, by the previous task of its machine
+            criticalPredecessors[op] = est == 0 ? -1 : est == endOfPreviousOnJob ? op - 1 : lastOnMachine[machine];
+            // increase the release time of the machine
+            releaseTimeOfMachine[machine] = est + instance.duration(job, task);
+            lastOnMachine[machine] = op;
+        }
 
+        // all tasks have been scheduled successfully
+        return new Schedule(instance, startTimes, criticalPredecessors);
+    }
 
-        // loop while there remains a job that has unscheduled tasks
-        while(IntStream.range(0, instance.numJobs).anyMatch(m -> nextToScheduleByJob[m] < instance.numTasks)) {
-
-            // selects a task that has noun scheduled predecessor on its job and machine :
-            //  - it is the next to be schedule on a machine
-            //  - it is the next to be scheduled on its job
-            // if there is no such task, we have cyclic dependency and the solution is invalid
-            Optional<Task> schedulable =
-                    IntStream.range(0, instance.numMachines) // all machines ...
-                    .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
-                    .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
-                    .findFirst(); // select the first one if any
-
-            if(schedulable.isPresent()) {
-                // we found a schedulable task, lets call it t
-                Task t = schedulable.get();
-                int machine = instance.machine(t.job, t.task);
-
-                // compute the earliest start time (est) of the task
-                int est = t.task == 0 ? 0 : startTimes[t.job][t.task-1] + instance.duration(t.job, t.task-1);
-                est = Math.max(est, releaseTimeOfMachine[instance.machine(t)]);
-                startTimes[t.job][t.task] = est;
-
-                // mark the task as scheduled
-                nextToScheduleByJob[t.job]++;
-                nextToScheduleByMachine[machine]++;
-                // increase the release time of the machine
-                releaseTimeOfMachine[machine] = est + instance.duration(t.job, t.task);
-            } else {
-                // no tasks are schedulable, there is no solution for this resource ordering
-                return null;
-            }
+    /** Makespan of toSchedule() computed on the given buffers, EXCEEDED if there is a cyclic dependency. */
+    @Override
+    public int makespan(int bound, EvaluationBuffers buffers) {
+        buffers.ensureCapacity(instance);
+        int[] sorted = buffers.sorted;
+        if(!topologicalOrder(sorted, buffers.nextOnMachine, buffers.inDegree))
+            return EXCEEDED;
+
+        int[] ends = buffers.ends;
+        buffers.resetMachines(instance);
+        int[] releaseTimeOfMachine = buffers.releaseTimeOfMachine;
+        int[] remainingLoad = buffers.remainingLoad;
+
+        // same as toSchedule(), with the end time of each task (job * numTasks + task) instead of start times
+        int makespan = 0;
+        for(int i = 0, numOps = instance.numJobs * instance.numTasks ; i < numOps ; i++) {
+            int op = sorted[i];
+            int job = op / instance.numTasks;
+            int task = op % instance.numTasks;
+            int machine = instance.machine(job, task);
+            int end = Math.max(task == 0 ? 0 : ends[op - 1], releaseTimeOfMachine[machine]) + instance.duration(job, task);
+            remainingLoad[machine] -= instance.duration(job, task);
+            // tasks are sorted in the order of their machine : the rest of the job and the remaining tasks of the
+            // machine can only start after this task
+            if(end + Math.max(instance.remainingDuration(job, task), remainingLoad[machine]) >= bound)
+                return EXCEEDED;
+            ends[op] = end;
+            releaseTimeOfMachine[machine] = end;
+            makespan = Math.max(makespan, end);
         }
-        // we exited the loop : all tasks have been scheduled successfully
-        return new Schedule(instance, startTimes);
+        return makespan;
     }
 
     /** Creates an exact copy of this resource order. */
     public ResourceOrder copy() {
-        return new ResourceOrder(this.toSchedule());
+        return new ResourceOrder(this);
+    }
+
+    /** Overwrites this resource order with the content of another one, for the same instance. */
+    public void copyFrom(ResourceOrder other) {
+        System.arraycopy(other.taskIds, 0, this.taskIds, 0, taskIds.length);
+        System.arraycopy(other.nextFreeSlot, 0, this.nextFreeSlot, 0, nextFreeSlot.length);
     }
 
     @Override
@@ -120,7 +257,7 @@ public class ResourceOrder extends Encoding {
             s.append("Machine ").append(m).append(" : ");
             for(int j=0; j<instance.numJobs; j++)
             {
-                s.append(tasksByMachine[m][j]).append(" ; ");
+                s.append(getTask(m, j)).append(" ; ");
             }
             s.append("\n");
         }
@@ -0,0 +1,200 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Giffler and Thompson's generator of active schedules.
+ *
+ * At each step, the ready task with the earliest completion time C* is found, on some machine m*. The conflict set is
+ * made of the ready tasks of m* that can start before C* : any of them can be scheduled next without the schedule
+ * ceasing to be active, and a DispatchRule (possibly randomized) picks one. Every active schedule can be built this way.
+ *
+ * Ready tasks are kept in one array per machine and the earliest completion time of each machine is cached in an
+ * indexed heap of machines : only the machine of the dispatched task and the one of its successor are updated at each
+ * step. Nothing is allocated after construction, except for the returned orders.
+ */
+public final class ActiveScheduleGenerator {
+
+    private final Instance instance;
+    private final int numTasks;
+    private final int[] durations;
+    private final int[] machineOf;
+
+    /** for each task : its key, the order in which it became ready, and the time at which its job is ready */
+    private final int[] keys;
+    private final int[] readyOrder;
+    private final int[] readyTime;
+    /** for each machine, the time at which it is released */
+    private final int[] releaseTime;
+
+    /** ready tasks of machine m in readyTasks[m * numJobs .. m * numJobs + numReadyTasks[m]) */
+    private final int[] readyTasks;
+    private final int[] numReadyTasks;
+    /** index of each ready task in readyTasks */
+    private final int[] slot;
+    /** for each machine with ready tasks, the earliest completion time of one of them */
+    private final int[] earliestCompletion;
+    /** machines with at least one ready task, ordered by earliest completion time */
+    private final IntHeap machines;
+
+    /** conflict set of the current step */
+    private final int[] conflict;
+
+    public ActiveScheduleGenerator(Instance instance) {
+        this.instance = instance;
+        this.numTasks = instance.numTasks;
+        int numOps = instance.numJobs * instance.numTasks;
+        this.durations = new int[numOps];
+        this.machineOf = new int[numOps];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                durations[j * numTasks + t] = instance.duration(j, t);
+                machineOf[j * numTasks + t] = instance.machine(j, t);
+            }
+        }
+        this.keys = new int[numOps];
+        this.readyOrder = new int[numOps];
+        this.readyTime = new int[numOps];
+        this.releaseTime = new int[instance.numMachines];
+        this.readyTasks = new int[instance.numMachines * instance.numJobs];
+        this.numReadyTasks = new int[instance.numMachines];
+        this.slot = new int[numOps];
+        this.earliestCompletion = new int[instance.numMachines];
+        this.machines = new IntHeap(instance.numMachines, this::byCompletion, instance.numMachines);
+        this.conflict = new int[instance.numJobs];
+    }
+
+    /** Active schedule where the task of the conflict set with the smallest key is always chosen, ties being broken
+     * by the order in which tasks became ready. */
+    public ResourceOrder generate(DispatchRule rule) {
+        return generate(rule, null, 1);
+    }
+
+    /** Active schedule where the task is chosen uniformly among the `candidates` tasks of the conflict set with the
+     * smallest keys (restricted candidate list). With FIFO, any number of candidates at least the number of jobs
+     * chooses uniformly in the conflict set. The random generator is not used if `candidates` is 1. */
+    public ResourceOrder generate(DispatchRule rule, SplittableRandom random, int candidates) {
+        ResourceOrder order = new ResourceOrder(instance);
+        generate(rule, random, candidates, order);
+        return order;
+    }
+
+    /** Same as generate(rule, random, candidates), overwriting the given resource order of the same instance. */
+    public void generate(DispatchRule rule, SplittableRandom random, int candidates, ResourceOrder order) {
+        Arrays.fill(order.nextFreeSlot, 0);
+        Arrays.fill(releaseTime, 0);
+        Arrays.fill(numReadyTasks, 0);
+        machines.clear();
+        int numReady = 0;
+
+        // first tasks of all jobs become ready, in the order of jobs
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            makeReady(rule, j * numTasks, 0, numReady++);
+        }
+
+        for(int dispatched = 0, numOps = keys.length ; dispatched < numOps ; dispatched++) {
+            // machine of the ready task that completes first, out of the heap while its tasks change so that only
+            // one machine is out of place at a time
+            int machine = machines.pop();
+            int completion = earliestCompletion[machine];
+            int release = releaseTime[machine];
+
+            // conflict set : the tasks that can start before this completion time
+            int offset = machine * instance.numJobs;
+            int conflictSize = 0;
+            int earliest = -1;
+            for(int i = 0 ; i < numReadyTasks[machine] ; i++) {
+                int op = readyTasks[offset + i];
+                int start = Math.max(readyTime[op], release);
+                if(start < completion)
+                    conflict[conflictSize++] = op;
+                else if(earliest == -1 && start + durations[op] == completion)
+                    earliest = op;
+            }
+            // only tasks of null duration can complete at C* without starting before it
+            if(conflictSize == 0)
+                conflict[conflictSize++] = earliest;
+
+            int op = choose(conflictSize, random, candidates);
+            int end = Math.max(readyTime[op], release) + durations[op];
+            releaseTime[machine] = end;
+            order.setTaskId(machine, order.nextFreeSlot[machine]++, op);
+
+            // removes the task from the ready tasks of its machine
+            int last = readyTasks[offset + --numReadyTasks[machine]];
+            readyTasks[offset + slot[op]] = last;
+            slot[last] = slot[op];
+
+            if(op % numTasks + 1 < numTasks)
+                makeReady(rule, op + 1, end, numReady++);
+            updateMachine(machine);
+        }
+    }
+
+    /** Picks a task in conflict[0..size), as described in generate(). */
+    private int choose(int size, SplittableRandom random, int candidates) {
+        int k = Math.min(size, Math.max(1, candidates));
+        if(k == size && random != null)
+            return conflict[random.nextInt(size)];
+        // the k best tasks are brought to the front by a partial selection sort
+        for(int i = 0 ; i < k ; i++) {
+            int best = i;
+            for(int j = i + 1 ; j < size ; j++) {
+                if(byKey(conflict[j], conflict[best]))
+                    best = j;
+            }
+            int tmp = conflict[i];
+            conflict[i] = conflict[best];
+            conflict[best] = tmp;
+        }
+        return k == 1 ? conflict[0] : conflict[random.nextInt(k)];
+    }
+
+    private void makeReady(DispatchRule rule, int op, int time, int rank) {
+        keys[op] = rule.key(instance, op / numTasks, op % numTasks);
+        readyOrder[op] = rank;
+        readyTime[op] = time;
+        int machine = machineOf[op];
+        slot[op] = numReadyTasks[machine];
+        readyTasks[machine * instance.numJobs + numReadyTasks[machine]++] = op;
+
+        // the other tasks of the machine are unchanged, as well as its release time
+        int completion = Math.max(time, releaseTime[machine]) + durations[op];
+        if(slot[op] == 0 || completion < earliestCompletion[machine]) {
+            earliestCompletion[machine] = completion;
+            machines.update(machine);
+        }
+    }
+
+    /** Recomputes the earliest completion time of the machine after its release time changed. */
+    private void updateMachine(int machine) {
+        if(numReadyTasks[machine] == 0) {
+            machines.remove(machine);
+            return;
+        }
+        int offset = machine * instance.numJobs;
+        int completion = Integer.MAX_VALUE;
+        for(int i = 0 ; i < numReadyTasks[machine] ; i++) {
+            int op = readyTasks[offset + i];
+            completion = Math.min(completion, Math.max(readyTime[op], releaseTime[machine]) + durations[op]);
+        }
+        earliestCompletion[machine] = completion;
+        machines.update(machine);
+    }
+
+    private boolean byKey(int op1, int op2) {
+        if(keys[op1] != keys[op2])
+            return keys[op1] < keys[op2];
+        return readyOrder[op1] < readyOrder[op2];
+    }
+
+    private boolean byCompletion(int m1, int m2) {
+        if(earliestCompletion[m1] != earliestCompletion[m2])
+            return earliestCompletion[m1] < earliestCompletion[m2];
+        return m1 < m2;
+    }
+}
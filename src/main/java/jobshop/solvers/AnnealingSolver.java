@@ -0,0 +1,112 @@
+package jobshop.solvers;
+
+import jobshop.*;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Simulated annealing over the swaps of the Nowicki and Smutnicki neighborhood, from the EST_LRPT greedy solution.
+ *
+ * Each step draws a random swap of the critical blocks and scores it with the O(1) estimate of MoveEvaluator : a swap
+ * that does not increase the estimated makespan is always accepted, otherwise it is accepted with probability
+ * exp(-delta / T). Rejected swaps cost O(1), only accepted ones are applied and trigger the O(N) update of heads and
+ * tails. The estimate is a lower bound, so a swap estimated as improving may turn out not to be : it is then treated
+ * as any other accepted move.
+ *
+ * The temperature decreases geometrically with the fraction of the time elapsed until the deadline, from an initial
+ * temperature at which half of the degrading swaps of the start solution are accepted to FINAL_TEMPERATURE.
+ */
+public class AnnealingSolver implements Solver {
+
+    /** Temperature at the deadline : a swap degrading the makespan by one unit is then accepted with probability
+     * exp(-1 / FINAL_TEMPERATURE). */
+    static final double FINAL_TEMPERATURE = 1.0;
+    /** Number of steps between two updates of the temperature, the clock being read at each update. */
+    static final int STEPS_PER_UPDATE = 1024;
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        ResourceOrder start = new ResourceOrder(new GreedySolver(GreedySolver.PriorityRule.EST_LRPT).solve(instance, -1).schedule);
+        Annealing annealing = new Annealing(start, 0);
+
+        long begin = System.currentTimeMillis();
+        double initialTemperature = annealing.initialTemperature();
+        while(true) {
+            if(annealing.bestMakespan <= instance.lowerBound()) {
+                // la borne inférieure est atteinte : inutile de chercher plus loin
+                return new Result(instance, annealing.bestOrder.toSchedule(), Result.ExitCause.ProvedOptimal);
+            }
+            long now = System.currentTimeMillis();
+            if(now >= deadline)
+                return new Result(instance, annealing.bestOrder.toSchedule(), Result.ExitCause.Timeout);
+            // refroidissement géométrique, de la température initiale à la finale en fonction du temps écoulé
+            double progress = (double) (now - begin) / (deadline - begin);
+            annealing.temperature = initialTemperature * Math.pow(FINAL_TEMPERATURE / initialTemperature, progress);
+
+            for(int i = 0 ; i < STEPS_PER_UPDATE ; i++) {
+                if(!annealing.step()) {
+                    // aucun voisin : la recherche ne peut pas aller plus loin
+                    return new Result(instance, annealing.bestOrder.toSchedule(), Result.ExitCause.Blocked);
+                }
+            }
+        }
+    }
+
+    /** State of an annealing : current and best solutions, and the neighborhood of the current one. */
+    static final class Annealing {
+        final ResourceOrder order;
+        final ResourceOrder bestOrder;
+        final MoveEvaluator evaluator;
+        final List<DescentSolver.Swap> swaps = new ArrayList<>();
+        final SplittableRandom random;
+        double temperature;
+        int bestMakespan;
+
+        Annealing(ResourceOrder start, long seed) {
+            this.order = start.copy();
+            this.bestOrder = start.copy();
+            this.evaluator = new MoveEvaluator(start.instance);
+            this.random = new SplittableRandom(seed);
+            evaluator.update(order);
+            evaluator.criticalSwaps(swaps);
+            this.bestMakespan = evaluator.makespan();
+        }
+
+        /** Temperature at which a degrading swap of the current solution, of average degradation, is accepted with
+         * probability 1/2. */
+        double initialTemperature() {
+            long sum = 0;
+            int count = 0;
+            for(DescentSolver.Swap swap : swaps) {
+                int delta = evaluator.estimate(swap, order) - evaluator.makespan();
+                if(delta > 0) {
+                    sum += delta;
+                    count++;
+                }
+            }
+            return count == 0 ? 1.0 : Math.max(FINAL_TEMPERATURE, (double) sum / count / Math.log(2));
+        }
+
+        /** Draws a random swap and applies it if it is accepted at the current temperature. Returns false if the
+         * current solution has no neighbor. */
+        boolean step() {
+            if(swaps.isEmpty())
+                return false;
+            DescentSolver.Swap swap = swaps.get(random.nextInt(swaps.size()));
+            int delta = evaluator.estimate(swap, order) - evaluator.makespan();
+            if(delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+                swap.applyOn(order);
+                evaluator.update(order);
+                evaluator.criticalSwaps(swaps);
+                if(evaluator.makespan() < bestMakespan) {
+                    bestMakespan = evaluator.makespan();
+                    bestOrder.copyFrom(order);
+                }
+            }
+            return true;
+        }
+    }
+}
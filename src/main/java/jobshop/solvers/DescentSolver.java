@@ -5,8 +5,8 @@ import jobshop.encodings.ResourceOrder;
 import jobshop.encodings.Task;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 public class DescentSolver implements Solver {
 
@@ -52,7 +52,7 @@ public class DescentSolver implements Solver {
      * machine 1 : (2,1) (0,2) (1,1)
      * machine 2 : ...
      */
-    static class Swap {
+    static class Swap implements Move {
         // machine on which to perform the swap
         final int machine;
         // index of one task to be swapped
@@ -67,121 +67,121 @@ public class DescentSolver implements Solver {
         }
 
         /** Apply this swap on the given resource order, transforming it into a new solution. */
+        @Override
         public void applyOn(ResourceOrder order) {
-            //We first get the tasks associated to our indexes
-            Task task1 = order.tasksByMachine[machine][t1];
-            Task task2 = order.tasksByMachine[machine][t2];
+            //We effectively swap the two tasks in the resource order for the solver
+            order.swap(machine, t1, t2);
+        }
 
-            //And then we effectively swap the values in our tasksByMachine Array for the solver
-            order.tasksByMachine[machine][t1] = task2;
-            order.tasksByMachine[machine][t2] = task1;
+        /** A swap is its own inverse: swapping the two tasks again gives back the original order. */
+        @Override
+        public void undoOn(ResourceOrder order) {
+            order.swap(machine, t1, t2);
         }
     }
 
+    /** Maximal number of random critical swaps applied to the best solution when the descent is stuck. */
+    static final int MAX_PERTURBATION = 5;
+
     // règle de prio pour le greedysolver
-    private GreedySolver.PriorityRule priority;
+    private final DispatchRule priority;
 
     // Constructeur
-    public DescentSolver(GreedySolver.PriorityRule prio) {
+    public DescentSolver(DispatchRule prio) {
         priority = prio;
     }
 
     @Override
     public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, 1);
+    }
+
+    /** Descends from the greedy solution to a local optimum, then restarts from a perturbation of the best solution
+     * found until the deadline is reached (iterated local search). */
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
         //On utilise le greedySolver pour génerer une solution
         Solver solver = new GreedySolver(priority);
-        ResourceOrder order = null;
-        int bestMakeSpan = Integer.MAX_VALUE;
 
         //génère un resource order avec la solution du greedySolver_EST_LRPT
-        ResourceOrder bestNeighborSolution = new ResourceOrder(solver.solve(instance, -1).schedule);
-        //Recupère son makespan
-        int bestNeighborMakeSpan = bestNeighborSolution.toSchedule().makespan();
-
-        //Tant que la solution du voisin est meilleur
-        while(bestNeighborMakeSpan < bestMakeSpan) {
-
-            order = bestNeighborSolution;
-            bestMakeSpan = bestNeighborMakeSpan;
-            List<Block> criticalblocks = blocksOfCriticalPath(order);
-
-            //On parcours la liste des blocks du chemin critique de la solution
-            for (Block currentBlock : criticalblocks) {
-                List<Swap> blockNeighbors = neighbors(currentBlock);
-
-                //On parcours les permutations de chaque block
-                for (Swap currentSwap : blockNeighbors) {
-                    //mémorise la meilleur solution
-                    ResourceOrder NeighborSolution = order.copy();
-                    //On applique la permutation a cette copie
-                    currentSwap.applyOn(NeighborSolution);
-                    int NeighborMakeSpan = NeighborSolution.toSchedule().makespan();
-
-                    //On vérifie si on a une meilleur solution
-                    if (NeighborMakeSpan < bestNeighborMakeSpan) {
-                        bestNeighborSolution = NeighborSolution;
-                        bestNeighborMakeSpan = NeighborMakeSpan;
-                    }
+        ResourceOrder order = new ResourceOrder(solver.solve(instance, -1).schedule);
+        //Recupère son makespan, ainsi que les têtes et queues de chaque tâche
+        MoveEvaluator evaluator = new MoveEvaluator(instance);
+        evaluator.update(order);
+
+        //meilleure solution rencontrée
+        ResourceOrder bestOrder = order.copy();
+        int bestMakeSpan = evaluator.makespan();
+        Random random = new Random(0);
+
+        //voisinage réutilisé d'une itération à l'autre pour les perturbations
+        List<Swap> swaps = new ArrayList<>();
+
+        try (NeighborhoodEvaluator neighborhood = new NeighborhoodEvaluator(instance, threads)) {
+            SteepestDescent descent = new SteepestDescent(evaluator, neighborhood);
+            while (true) {
+                int currentMakeSpan = descent.descend(order, deadline);
+
+                if (currentMakeSpan < bestMakeSpan) {
+                    bestMakeSpan = currentMakeSpan;
+                    bestOrder.copyFrom(order);
+                }
+                //la borne inférieure est atteinte : inutile de chercher plus loin
+                if (bestMakeSpan <= instance.lowerBound()) {
+                    return new Result(instance, bestOrder.toSchedule(), Result.ExitCause.ProvedOptimal);
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    return new Result(instance, bestOrder.toSchedule(), Result.ExitCause.Timeout);
+                }
+
+                //Optimum local atteint avant la fin du temps imparti : on repart de la meilleure solution perturbée
+                order.copyFrom(bestOrder);
+                evaluator.update(order);
+                if (!perturb(order, evaluator, swaps, random, 1 + random.nextInt(MAX_PERTURBATION))) {
+                    //aucun voisin : la recherche ne peut pas aller plus loin
+                    return new Result(instance, bestOrder.toSchedule(), Result.ExitCause.Blocked);
                 }
             }
         }
-        return new Result(instance, order.toSchedule(), Result.ExitCause.Blocked);
+    }
+
+    /** Applies `strength` random swaps of the Nowicki and Smutnicki neighborhood on the order, keeping the evaluator
+     * up to date. Such swaps never create a cycle. Returns false if the order has no neighbor at all. */
+    static boolean perturb(ResourceOrder order, MoveEvaluator evaluator, List<Swap> swaps, Random random, int strength) {
+        for (int i = 0; i < strength; i++) {
+            evaluator.criticalSwaps(swaps);
+            if (swaps.isEmpty()) {
+                return i > 0;
+            }
+            swaps.get(random.nextInt(swaps.size())).applyOn(order);
+            evaluator.update(order);
+        }
+        return true;
     }
 
     /** Returns a list of all blocks of the critical path. */
     public static List<Block> blocksOfCriticalPath(ResourceOrder order) {
-        List<Task> criticalPath = order.toSchedule().criticalPath();
+        int[] criticalPath = order.toSchedule().criticalPathIds();
         List<Block> blockList = new ArrayList<>();
-
-        // Liste pour récupérer les premières et dernières taches
-        // de chaque job
-        List<Task> tempList = new ArrayList<>();
-        List<Task> orderMachine;
-        int currentBlockMachine = -1;
-        int taskCount = 0;
-
-        // On parcours toutes les tâches du chemin critique
-        for (Task current : criticalPath) {
-            int currentMachine = order.instance.machine(current);
-            //si la tâche s'execute sur une machine
-            //différente de la précédente,
-            //dans ce cas, c'est la fin du block
-            if (currentMachine != currentBlockMachine) {
-
-                // si ce block a plus d'une tâche, on l'ajoute
-                // à notre blockList
-                if (taskCount > 1) {
-                    orderMachine = Arrays.asList(order.tasksByMachine[currentBlockMachine]);
-                    Task firstTask = tempList.get(0);
-                    Task lastTask = tempList.get(tempList.size() - 1);
-                    blockList.add(new Block(currentBlockMachine,
-                                  orderMachine.indexOf(firstTask),
-                                  orderMachine.indexOf(lastTask)));
-                }
-                //on remet à 0 pour le prochain block
-                currentBlockMachine = currentMachine;
-                taskCount = 0;
-                // on clear la liste temporaire de stockage des tâches
-                for (int i = tempList.size()-1; i>=0; i--) {
-                    tempList.remove(i);
-                }
-                tempList.add(current);
-                taskCount+=1;
+        int numTasks = order.instance.numTasks;
+
+        // On parcours le chemin critique par blocs : suites maximales de tâches sur la même machine.
+        // Deux tâches consécutives d'un bloc sont consécutives sur la machine (un job ne passe
+        // qu'une fois par machine), seule la position de la première tâche est donc recherchée
+        int blockStart = 0;
+        for (int i = 1; i <= criticalPath.length; i++) {
+            int blockMachine = order.instance.machine(criticalPath[blockStart] / numTasks, criticalPath[blockStart] % numTasks);
+            if (i < criticalPath.length
+                    && order.instance.machine(criticalPath[i] / numTasks, criticalPath[i] % numTasks) == blockMachine) {
+                continue;
             }
-            else {
-                //on ajoute la machine à notre liste temporaire
-                tempList.add(current);
-                taskCount += 1;
+            // si ce block a plus d'une tâche, on l'ajoute à notre blockList
+            if (i - blockStart > 1) {
+                Task first = new Task(criticalPath[blockStart] / numTasks, criticalPath[blockStart] % numTasks);
+                int firstTask = order.indexOf(blockMachine, first);
+                blockList.add(new Block(blockMachine, firstTask, firstTask + i - blockStart - 1));
             }
-        }
-
-        //on ajoute à la liste un éventuel block qu'on aurait pu
-        //ne pas avoir manqué précedemment
-        if (taskCount > 1) {
-            orderMachine = Arrays.asList(order.tasksByMachine[currentBlockMachine]);
-            Task firstTask = tempList.get(0);
-            Task lastTask = tempList.get(tempList.size() - 1);
-            blockList.add(new Block(currentBlockMachine, orderMachine.indexOf(firstTask),orderMachine.indexOf(lastTask)));
+            blockStart = i;
         }
         return blockList;
     }
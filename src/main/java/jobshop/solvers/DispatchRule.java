@@ -0,0 +1,18 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+
+/** Priority rule of the dispatching engine of GreedySolver.
+ *
+ * When a task becomes ready (its predecessor on the job has been dispatched), it is given a key : ready tasks with the
+ * smallest key are dispatched first, ties being broken by the order in which tasks became ready. */
+public interface DispatchRule {
+
+    /** Key of the given task, computed once when it becomes ready. */
+    int key(Instance instance, int job, int task);
+
+    /** If true, only the ready tasks that can start the earliest are candidates, and the key decides between them. */
+    default boolean earliestStartFirst() {
+        return false;
+    }
+}
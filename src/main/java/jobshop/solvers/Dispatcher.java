@@ -0,0 +1,154 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.Arrays;
+
+/**
+ * Dispatching engine : builds a resource order by repeatedly appending a ready task, chosen by a DispatchRule, to the
+ * sequence of its machine.
+ *
+ * Ready tasks are kept in binary heaps of task identifiers (job * numTasks + task), ordered by (key, ready order).
+ * With earliest start first, each machine keeps its ready tasks in two heaps : the ones that are available when the
+ * machine is released, ordered by (key, ready order), and the ones still waiting for their job, ordered by
+ * (ready time, key, ready order). The best candidate of each machine is at the top of one of them, and an indexed heap
+ * of machines gives the best candidate overall. Both variants run in O(N log n) and allocate nothing after construction.
+ */
+public final class Dispatcher {
+
+    private final Instance instance;
+    private final int numTasks;
+
+    /** for each task : its key, the order in which it became ready, and the time at which its job is ready */
+    private final int[] keys;
+    private final int[] readyOrder;
+    private final int[] readyTime;
+    /** for each machine, the time at which it is released */
+    private final int[] releaseTime;
+
+    /** ready tasks when dispatching without earliest start first */
+    private final IntHeap ready;
+    /** for each machine, its available and waiting ready tasks, and the start time of its best candidate */
+    private final IntHeap[] available;
+    private final IntHeap[] waiting;
+    private final int[] candidateStart;
+    /** machines with at least one ready task, ordered by their best candidate */
+    private final IntHeap machines;
+
+    public Dispatcher(Instance instance) {
+        this.instance = instance;
+        this.numTasks = instance.numTasks;
+        int numOps = instance.numJobs * instance.numTasks;
+        this.keys = new int[numOps];
+        this.readyOrder = new int[numOps];
+        this.readyTime = new int[numOps];
+        this.releaseTime = new int[instance.numMachines];
+
+        this.ready = new IntHeap(instance.numJobs, this::byKey, 0);
+        this.available = new IntHeap[instance.numMachines];
+        this.waiting = new IntHeap[instance.numMachines];
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            available[m] = new IntHeap(instance.numJobs, this::byKey, 0);
+            waiting[m] = new IntHeap(instance.numJobs, this::byReadyTime, 0);
+        }
+        this.candidateStart = new int[instance.numMachines];
+        this.machines = new IntHeap(instance.numMachines, this::byCandidate, instance.numMachines);
+    }
+
+    /** Dispatches all tasks of the instance with the given rule. */
+    public ResourceOrder dispatch(DispatchRule rule) {
+        ResourceOrder order = new ResourceOrder(instance);
+        Arrays.fill(releaseTime, 0);
+        int numReady = 0;
+
+        // first tasks of all jobs become ready, in the order of jobs
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            makeReady(rule, j * numTasks, 0, numReady++);
+        }
+        if(rule.earliestStartFirst()) {
+            for(int m = 0 ; m < instance.numMachines ; m++)
+                updateMachine(m);
+        }
+
+        for(int dispatched = 0, numOps = keys.length ; dispatched < numOps ; dispatched++) {
+            int op;
+            int machine;
+            if(rule.earliestStartFirst()) {
+                // the machine leaves the heap while its candidates change, so that only one machine is out of place
+                machine = machines.pop();
+                op = available[machine].isEmpty() ? waiting[machine].pop() : available[machine].pop();
+            } else {
+                op = ready.pop();
+                machine = instance.machine(op / numTasks, op % numTasks);
+            }
+            int job = op / numTasks;
+            int task = op % numTasks;
+            int end = Math.max(readyTime[op], releaseTime[machine]) + instance.duration(job, task);
+            releaseTime[machine] = end;
+            order.setTaskId(machine, order.nextFreeSlot[machine]++, op);
+
+            if(task + 1 < numTasks)
+                makeReady(rule, op + 1, end, numReady++);
+            if(rule.earliestStartFirst()) {
+                updateMachine(machine);
+                if(task + 1 < numTasks)
+                    updateMachine(instance.machine(job, task + 1));
+            }
+        }
+        return order;
+    }
+
+    private void makeReady(DispatchRule rule, int op, int time, int rank) {
+        int job = op / numTasks;
+        int task = op % numTasks;
+        keys[op] = rule.key(instance, job, task);
+        readyOrder[op] = rank;
+        readyTime[op] = time;
+        if(!rule.earliestStartFirst()) {
+            ready.push(op);
+        } else {
+            int machine = instance.machine(job, task);
+            (time <= releaseTime[machine] ? available : waiting)[machine].push(op);
+        }
+    }
+
+    /** Moves the tasks of the machine that are now available and repositions the machine in the heap of machines. */
+    private void updateMachine(int machine) {
+        IntHeap waitingOnMachine = waiting[machine];
+        while(!waitingOnMachine.isEmpty() && readyTime[waitingOnMachine.peek()] <= releaseTime[machine])
+            available[machine].push(waitingOnMachine.pop());
+
+        if(!available[machine].isEmpty()) {
+            candidateStart[machine] = releaseTime[machine];
+        } else if(!waitingOnMachine.isEmpty()) {
+            candidateStart[machine] = readyTime[waitingOnMachine.peek()];
+        } else {
+            machines.remove(machine);
+            return;
+        }
+        machines.update(machine);
+    }
+
+    private int candidate(int machine) {
+        return available[machine].isEmpty() ? waiting[machine].peek() : available[machine].peek();
+    }
+
+    private boolean byKey(int op1, int op2) {
+        if(keys[op1] != keys[op2])
+            return keys[op1] < keys[op2];
+        return readyOrder[op1] < readyOrder[op2];
+    }
+
+    private boolean byReadyTime(int op1, int op2) {
+        if(readyTime[op1] != readyTime[op2])
+            return readyTime[op1] < readyTime[op2];
+        return byKey(op1, op2);
+    }
+
+    private boolean byCandidate(int m1, int m2) {
+        if(candidateStart[m1] != candidateStart[m2])
+            return candidateStart[m1] < candidateStart[m2];
+        return byKey(candidate(m1), candidate(m2));
+    }
+}
@@ -0,0 +1,282 @@
+package jobshop.solvers;
+
+import jobshop.*;
+import jobshop.encodings.EvaluationBuffers;
+import jobshop.encodings.JobNumbers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Generational genetic algorithm over the JobNumbers encoding, where any sequence holding each job numTasks times
+ * decodes to a feasible schedule.
+ *
+ * Children are bred from parents chosen by binary tournament, with a job-based order crossover (JOX) or a
+ * precedence preserving crossover (PPX), then mutated by swapping two genes. The best individual of a generation
+ * replaces the worst child of the next one. The first individual is the EST_LRPT greedy solution, the others are
+ * random sequences.
+ *
+ * Individuals are slices of a single int[] arena, one per generation, and children are scored in parallel with
+ * JobNumbers.makespan() on per-thread buffers : nothing is allocated from one generation to the next. Breeding only
+ * draws from a generator of seed 0 on the calling thread, so the result does not depend on the number of threads.
+ */
+public class GeneticSolver implements Solver {
+
+    public enum Crossover { JOX, PPX }
+
+    // taille de la population
+    private final int populationSize;
+    private final Crossover crossover;
+    // probabilité de muter un enfant
+    private final double mutationRate;
+
+    public GeneticSolver(int populationSize, Crossover crossover, double mutationRate) {
+        if(populationSize < 2)
+            throw new IllegalArgumentException("The population needs at least two individuals");
+        this.populationSize = populationSize;
+        this.crossover = crossover;
+        this.mutationRate = mutationRate;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, 1);
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
+        int length = instance.numJobs * instance.numTasks;
+        SplittableRandom random = new SplittableRandom(0);
+
+        // population courante et enfants, chaque individu occupant `length` cases consécutives
+        int[] population = new int[populationSize * length];
+        int[] children = new int[populationSize * length];
+        int[] fitness = new int[populationSize];
+        int[] childFitness = new int[populationSize];
+        Breeder breeder = new Breeder(instance);
+
+        JobNumbers greedy = new JobNumbers(new GreedySolver(GreedySolver.PriorityRule.EST_LRPT).solve(instance, -1).schedule);
+        System.arraycopy(greedy.jobs, 0, population, 0, length);
+        for(int i = 1 ; i < populationSize ; i++) {
+            int offset = i * length;
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++)
+                    population[offset + j * instance.numTasks + t] = j;
+            }
+            shuffle(population, offset, length, random);
+        }
+
+        try (Evaluation evaluation = new Evaluation(instance, threads)) {
+            evaluation.evaluate(population, fitness, populationSize);
+            int best = indexOfBest(fitness);
+
+            // jusqu'à la fin du temps imparti, ou jusqu'à atteindre la borne inférieure
+            while(System.currentTimeMillis() < deadline && fitness[best] > instance.lowerBound()) {
+                for(int c = 0 ; c < populationSize ; c++) {
+                    int father = tournament(fitness, random);
+                    int mother = tournament(fitness, random);
+                    if(crossover == Crossover.JOX)
+                        breeder.jox(population, father * length, population, mother * length, children, c * length, random);
+                    else
+                        breeder.ppx(population, father * length, population, mother * length, children, c * length, random);
+                    if(random.nextDouble() < mutationRate) {
+                        int offset = c * length;
+                        int i = offset + random.nextInt(length);
+                        int j = offset + random.nextInt(length);
+                        int tmp = children[i];
+                        children[i] = children[j];
+                        children[j] = tmp;
+                    }
+                }
+                evaluation.evaluate(children, childFitness, populationSize);
+
+                // élitisme : le meilleur individu remplace le pire enfant
+                int worst = 0;
+                for(int c = 1 ; c < populationSize ; c++) {
+                    if(childFitness[c] > childFitness[worst])
+                        worst = c;
+                }
+                System.arraycopy(population, best * length, children, worst * length, length);
+                childFitness[worst] = fitness[best];
+
+                int[] tmp = population;
+                population = children;
+                children = tmp;
+                int[] tmpFitness = fitness;
+                fitness = childFitness;
+                childFitness = tmpFitness;
+                best = indexOfBest(fitness);
+            }
+
+            JobNumbers sol = new JobNumbers(instance);
+            System.arraycopy(population, best * length, sol.jobs, 0, length);
+            sol.nextToSet = length;
+            Schedule schedule = sol.toSchedule();
+            assert schedule.makespan() == fitness[best];
+            Result.ExitCause cause = fitness[best] <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+            return new Result(instance, schedule, cause);
+        }
+    }
+
+    /** Index of the best of two random individuals. */
+    private static int tournament(int[] fitness, SplittableRandom random) {
+        int a = random.nextInt(fitness.length);
+        int b = random.nextInt(fitness.length);
+        return fitness[b] < fitness[a] ? b : a;
+    }
+
+    /** Index of the individual of smallest makespan, the first one in case of a tie. */
+    private static int indexOfBest(int[] fitness) {
+        int best = 0;
+        for(int i = 1 ; i < fitness.length ; i++) {
+            if(fitness[i] < fitness[best])
+                best = i;
+        }
+        return best;
+    }
+
+    /** Fisher–Yates shuffling of array[offset .. offset + length) */
+    private static void shuffle(int[] array, int offset, int length, SplittableRandom random) {
+        for(int i = length - 1 ; i > 0 ; i--) {
+            int index = random.nextInt(i + 1);
+            int tmp = array[offset + index];
+            array[offset + index] = array[offset + i];
+            array[offset + i] = tmp;
+        }
+    }
+
+    /** Crossovers between two slices of arenas, written to a third one, with scratch arrays allocated once. */
+    private static final class Breeder {
+        private final int numJobs;
+        private final int length;
+        private final boolean[] fromFather;
+        private final int[] taken;
+        private final int[] seenInFather;
+        private final int[] seenInMother;
+
+        Breeder(Instance instance) {
+            this.numJobs = instance.numJobs;
+            this.length = instance.numJobs * instance.numTasks;
+            this.fromFather = new boolean[numJobs];
+            this.taken = new int[numJobs];
+            this.seenInFather = new int[numJobs];
+            this.seenInMother = new int[numJobs];
+        }
+
+        /** Job-based order crossover : the genes of a random subset of jobs keep their positions in the father, the
+         * other positions are filled with the genes of the other jobs in the order of the mother. */
+        void jox(int[] father, int f, int[] mother, int m, int[] child, int c, SplittableRandom random) {
+            for(int j = 0 ; j < numJobs ; j++)
+                fromFather[j] = random.nextBoolean();
+            int next = m;
+            for(int i = 0 ; i < length ; i++) {
+                int job = father[f + i];
+                if(!fromFather[job]) {
+                    // prochain gène de la mère appartenant à un job qui ne vient pas du père
+                    while(fromFather[mother[next]])
+                        next++;
+                    job = mother[next++];
+                }
+                child[c + i] = job;
+            }
+        }
+
+        /** Precedence preserving crossover : each gene of the child is the first gene not yet used of a random
+         * parent, the k-th gene of a job in a parent being used once the job appears k times in the child. */
+        void ppx(int[] father, int f, int[] mother, int m, int[] child, int c, SplittableRandom random) {
+            for(int j = 0 ; j < numJobs ; j++) {
+                taken[j] = 0;
+                seenInFather[j] = 0;
+                seenInMother[j] = 0;
+            }
+            int nextInFather = f;
+            int nextInMother = m;
+            for(int i = 0 ; i < length ; i++) {
+                // les gènes déjà utilisés sont sautés dans chaque parent
+                while(seenInFather[father[nextInFather]] < taken[father[nextInFather]])
+                    seenInFather[father[nextInFather++]]++;
+                while(seenInMother[mother[nextInMother]] < taken[mother[nextInMother]])
+                    seenInMother[mother[nextInMother++]]++;
+
+                int job = random.nextBoolean() ? father[nextInFather] : mother[nextInMother];
+                taken[job]++;
+                child[c + i] = job;
+            }
+        }
+    }
+
+    /** Scores the individuals of an arena, spread on a ForkJoin pool with one scratch encoding per worker. */
+    private static final class Evaluation implements AutoCloseable {
+        private final int threads;
+        private final ForkJoinPool pool;
+        private final List<Worker> workers = new ArrayList<>();
+
+        /** shared with the workers during a call to evaluate() */
+        private int[] arena;
+        private int[] fitness;
+        private int count;
+
+        Evaluation(Instance instance, int threads) {
+            this.threads = Math.max(1, threads);
+            this.pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+            for(int i = 0 ; i < this.threads ; i++)
+                workers.add(new Worker(instance, i));
+        }
+
+        /** Sets fitness[i] to the makespan of the i-th individual of the arena, for all i < count. */
+        void evaluate(int[] arena, int[] fitness, int count) {
+            this.arena = arena;
+            this.fitness = fitness;
+            this.count = count;
+            if(pool == null) {
+                workers.get(0).call();
+            } else {
+                try {
+                    for(Future<Void> result : pool.invokeAll(workers)) {
+                        result.get();
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    throw new RuntimeException("Parallel evaluation of the population failed", e);
+                }
+            }
+            this.arena = null;
+            this.fitness = null;
+        }
+
+        @Override
+        public void close() {
+            if(pool != null)
+                pool.shutdown();
+        }
+
+        /** Decodes a contiguous share of the individuals. */
+        private class Worker implements Callable<Void> {
+            private final int id;
+            private final JobNumbers sol;
+            private final EvaluationBuffers buffers = new EvaluationBuffers();
+
+            Worker(Instance instance, int id) {
+                this.id = id;
+                this.sol = new JobNumbers(instance);
+                this.sol.nextToSet = sol.jobs.length;
+            }
+
+            @Override
+            public Void call() {
+                int from = (int) ((long) count * id / threads);
+                int to = (int) ((long) count * (id + 1) / threads);
+                int length = sol.jobs.length;
+                for(int i = from ; i < to ; i++) {
+                    System.arraycopy(arena, i * length, sol.jobs, 0, length);
+                    fitness[i] = sol.makespan(Integer.MAX_VALUE, buffers);
+                }
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package jobshop.solvers;
+
+import jobshop.*;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Greedy randomized adaptive search (GRASP) : until the deadline, builds active schedules where each task is drawn
+ * among the `candidates` best tasks of the Giffler and Thompson conflict set for a priority rule picked at random, and
+ * improves each of them with a steepest descent.
+ *
+ * Each thread has its own generator, evaluators and SplittableRandom, split from a master generator of seed 0. The
+ * best solution of all threads is an incumbent shared through an AtomicReference, replaced by compare-and-set only
+ * when a thread finds a strictly better one. All threads stop once it reaches the lower bound of the instance.
+ */
+public class GraspSolver implements Solver {
+
+    // taille de la liste restreinte de candidats
+    private final int candidates;
+    // règles de prio parmi lesquelles chaque construction tire la sienne
+    private final DispatchRule[] rules;
+
+    public GraspSolver(int candidates, DispatchRule... rules) {
+        if(rules.length == 0)
+            throw new IllegalArgumentException("GRASP needs at least one priority rule");
+        this.candidates = candidates;
+        this.rules = rules.clone();
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, 1);
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
+        AtomicReference<Incumbent> incumbent = new AtomicReference<>();
+        SplittableRandom master = new SplittableRandom(0);
+        List<Worker> workers = new ArrayList<>();
+        for(int i = 0 ; i < Math.max(1, threads) ; i++) {
+            workers.add(new Worker(instance, master.split(), deadline, incumbent));
+        }
+
+        if(workers.size() == 1) {
+            workers.get(0).call();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(workers.size());
+            try {
+                for(Future<Void> result : pool.invokeAll(workers)) {
+                    result.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Parallel GRASP failed", e);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        Schedule schedule = incumbent.get().order.toSchedule();
+        assert schedule.makespan() == incumbent.get().makespan;
+        Result.ExitCause cause = schedule.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+        return new Result(instance, schedule, cause);
+    }
+
+    /** Best solution found so far by any thread, never modified once published. */
+    private static final class Incumbent {
+        final ResourceOrder order;
+        final int makespan;
+
+        Incumbent(ResourceOrder order, int makespan) {
+            this.order = order;
+            this.makespan = makespan;
+        }
+    }
+
+    /** Replaces the incumbent with a copy of the given order if it is strictly better. */
+    private static void offer(AtomicReference<Incumbent> incumbent, ResourceOrder order, int makespan) {
+        Incumbent candidate = null;
+        while(true) {
+            Incumbent current = incumbent.get();
+            if(current != null && current.makespan <= makespan)
+                return;
+            if(candidate == null)
+                candidate = new Incumbent(order.copy(), makespan);
+            if(incumbent.compareAndSet(current, candidate))
+                return;
+        }
+    }
+
+    /** Builds and improves solutions on one thread. */
+    private class Worker implements Callable<Void> {
+        private final SplittableRandom random;
+        private final long deadline;
+        private final int lowerBound;
+        private final AtomicReference<Incumbent> incumbent;
+
+        private final ActiveScheduleGenerator generator;
+        private final MoveEvaluator evaluator;
+        private final NeighborhoodEvaluator neighborhood;
+        private final ResourceOrder order;
+
+        Worker(Instance instance, SplittableRandom random, long deadline, AtomicReference<Incumbent> incumbent) {
+            this.random = random;
+            this.deadline = deadline;
+            this.lowerBound = instance.lowerBound();
+            this.incumbent = incumbent;
+            this.generator = new ActiveScheduleGenerator(instance);
+            this.evaluator = new MoveEvaluator(instance);
+            // chaque thread fait sa propre descente, sans paralléliser le voisinage
+            this.neighborhood = new NeighborhoodEvaluator(instance, 1);
+            this.order = new ResourceOrder(instance);
+        }
+
+        @Override
+        public Void call() {
+            SteepestDescent descent = new SteepestDescent(evaluator, neighborhood);
+            // au moins une construction, même si le temps est déjà écoulé, et arrêt de tous les threads dès que la
+            // borne inférieure est atteinte
+            do {
+                DispatchRule rule = rules[random.nextInt(rules.length)];
+                generator.generate(rule, random, candidates, order);
+                evaluator.update(order);
+                int makespan = descent.descend(order, deadline);
+                offer(incumbent, order, makespan);
+            } while(System.currentTimeMillis() < deadline && incumbent.get().makespan > lowerBound);
+            neighborhood.close();
+            return null;
+        }
+    }
+}
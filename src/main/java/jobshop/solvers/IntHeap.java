@@ -0,0 +1,119 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Binary min-heap of ints, ordered by an external comparison so that elements can be indices into primitive arrays.
+ * When given a universe size, it also tracks the position of each element, so that elements can be updated or
+ * removed. Nothing is allocated after construction. */
+final class IntHeap {
+
+    interface Order {
+        /** True if a must come out of the heap before b. */
+        boolean before(int a, int b);
+    }
+
+    private final int[] elements;
+    private final int[] positions;
+    private final Order order;
+    private int size;
+
+    IntHeap(int capacity, Order order, int universe) {
+        this.elements = new int[capacity];
+        this.positions = new int[universe];
+        Arrays.fill(positions, -1);
+        this.order = order;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int peek() {
+        return elements[0];
+    }
+
+    void push(int e) {
+        place(e, size++);
+        siftUp(size - 1);
+    }
+
+    int pop() {
+        int top = elements[0];
+        removeAt(0);
+        return top;
+    }
+
+    /** Inserts the element or restores its position after its order has changed. Indexed heaps only. */
+    void update(int e) {
+        int i = positions[e];
+        if(i == -1) {
+            push(e);
+        } else {
+            siftUp(i);
+            siftDown(positions[e]);
+        }
+    }
+
+    /** Removes the element if it is in the heap. Indexed heaps only. */
+    void remove(int e) {
+        if(positions[e] != -1)
+            removeAt(positions[e]);
+    }
+
+    /** Empties the heap. */
+    void clear() {
+        if(positions.length > 0) {
+            for(int i = 0 ; i < size ; i++)
+                positions[elements[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void removeAt(int i) {
+        int removed = elements[i];
+        if(positions.length > 0)
+            positions[removed] = -1;
+        size--;
+        if(i < size) {
+            int moved = elements[size];
+            place(moved, i);
+            siftUp(i);
+            if(elements[i] == moved)
+                siftDown(i);
+        }
+    }
+
+    private void siftUp(int i) {
+        int e = elements[i];
+        while(i > 0) {
+            int parent = (i - 1) / 2;
+            if(!order.before(e, elements[parent]))
+                break;
+            place(elements[parent], i);
+            i = parent;
+        }
+        place(e, i);
+    }
+
+    private void siftDown(int i) {
+        int e = elements[i];
+        while(true) {
+            int child = 2 * i + 1;
+            if(child >= size)
+                break;
+            if(child + 1 < size && order.before(elements[child + 1], elements[child]))
+                child++;
+            if(!order.before(elements[child], e))
+                break;
+            place(elements[child], i);
+            i = child;
+        }
+        place(e, i);
+    }
+
+    private void place(int e, int i) {
+        elements[i] = e;
+        if(positions.length > 0)
+            positions[e] = i;
+    }
+}
@@ -0,0 +1,168 @@
+package jobshop.solvers;
+
+import jobshop.*;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Island model : one TSAB search per thread, each from its own start, exchanging their best solutions.
+ *
+ * The first island starts from the EST_LRPT greedy solution, the others from randomized active schedules. Every
+ * `migrationInterval` iterations, an island publishes its best solution in its slot of an AtomicReferenceArray if it
+ * improved, and adopts the solution published by the previous island of the ring if it is better than its own best.
+ * Published solutions are never modified, so that the exchange needs no lock. The best makespan of all islands is
+ * shared in an AtomicInteger : all islands stop as soon as it reaches the lower bound of the instance.
+ */
+public class IslandSolver implements Solver {
+
+    // paramètres de la recherche TSAB de chaque île
+    private final TsabSolver tsab;
+    // nombre d'itérations entre deux migrations
+    private final int migrationInterval;
+
+    public IslandSolver(TsabSolver tsab, int migrationInterval) {
+        this.tsab = tsab;
+        this.migrationInterval = migrationInterval;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, 1);
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
+        int numIslands = Math.max(1, threads);
+        Exchange exchange = new Exchange(numIslands, instance.lowerBound());
+
+        // départs diversifiés : glouton EST_LRPT pour la première île, ordonnancements actifs aléatoires sinon
+        ResourceOrder greedy = new ResourceOrder(new GreedySolver(GreedySolver.PriorityRule.EST_LRPT).solve(instance, -1).schedule);
+        ActiveScheduleGenerator generator = new ActiveScheduleGenerator(instance);
+        SplittableRandom master = new SplittableRandom(0);
+        List<Island> islands = new ArrayList<>();
+        for(int i = 0 ; i < numIslands ; i++) {
+            SplittableRandom random = master.split();
+            ResourceOrder start = i == 0 ? greedy : generator.generate(GreedySolver.PriorityRule.MWKR, random, 3);
+            islands.add(new Island(i, new TsabSolver.Search(tsab, start, random.nextLong()), exchange, deadline));
+        }
+
+        if(islands.size() == 1) {
+            islands.get(0).call();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(islands.size());
+            try {
+                for(Future<Void> result : pool.invokeAll(islands)) {
+                    result.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Parallel island search failed", e);
+            } finally {
+                pool.shutdown();
+            }
+        }
+
+        // meilleure solution de toutes les îles, la première en cas d'égalité
+        Island best = islands.get(0);
+        for(Island island : islands) {
+            if(island.search.bestMakespan < best.search.bestMakespan)
+                best = island;
+        }
+        Result.ExitCause cause = exchange.isOptimal() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+        return new Result(instance, best.search.bestOrder.toSchedule(), cause);
+    }
+
+    /** Solution published by an island, never modified once published. */
+    private static final class Migrant {
+        final ResourceOrder order;
+        final int makespan;
+
+        Migrant(ResourceOrder order, int makespan) {
+            this.order = order;
+            this.makespan = makespan;
+        }
+    }
+
+    /** Lock-free exchange between the islands : one slot per island and the best makespan of all islands. */
+    private static final class Exchange {
+        final AtomicReferenceArray<Migrant> slots;
+        final AtomicInteger bestMakespan = new AtomicInteger(Integer.MAX_VALUE);
+        final int lowerBound;
+
+        Exchange(int numIslands, int lowerBound) {
+            this.slots = new AtomicReferenceArray<>(numIslands);
+            this.lowerBound = lowerBound;
+        }
+
+        void publish(int island, ResourceOrder order, int makespan) {
+            slots.set(island, new Migrant(order.copy(), makespan));
+            bestMakespan.accumulateAndGet(makespan, Math::min);
+        }
+
+        /** True if some island found a solution that reaches the lower bound. */
+        boolean isOptimal() {
+            return bestMakespan.get() <= lowerBound;
+        }
+    }
+
+    /** One TSAB search, migrating solutions with its neighbors in the ring of islands. */
+    private class Island implements Callable<Void> {
+        private final int id;
+        private final TsabSolver.Search search;
+        private final Exchange exchange;
+        private final long deadline;
+        // meilleur makespan publié par cette île
+        private int published = Integer.MAX_VALUE;
+
+        Island(int id, TsabSolver.Search search, Exchange exchange, long deadline) {
+            this.id = id;
+            this.search = search;
+            this.exchange = exchange;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public Void call() {
+            // chaque île fait sa propre recherche, sans paralléliser le voisinage
+            try (NeighborhoodEvaluator neighborhood = new NeighborhoodEvaluator(search.bestOrder.instance, 1)) {
+                migrate();
+                if(search.bestMakespan <= exchange.lowerBound)
+                    return null;
+                int k = 0;
+                while(!exchange.isOptimal() && System.currentTimeMillis() < deadline) {
+                    boolean blocked = !search.iterate(neighborhood);
+                    if(blocked || search.bestMakespan <= exchange.lowerBound) {
+                        // solution optimale (sans voisin, ou à la borne inférieure) : on la publie pour arrêter les
+                        // autres îles
+                        exchange.publish(id, search.bestOrder, search.bestMakespan);
+                        break;
+                    }
+                    if(++k % migrationInterval == 0)
+                        migrate();
+                }
+            }
+            return null;
+        }
+
+        /** Publishes the best solution of the island if it improved, and adopts the one of the previous island if it
+         * is better. */
+        private void migrate() {
+            if(search.bestMakespan < published) {
+                published = search.bestMakespan;
+                exchange.publish(id, search.bestOrder, published);
+            }
+            int slots = exchange.slots.length();
+            Migrant migrant = exchange.slots.get((id + slots - 1) % slots);
+            if(migrant != null && migrant.makespan < search.bestMakespan)
+                search.moveTo(migrant.order);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package jobshop.solvers;
+
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * A modification of a ResourceOrder that is applied in place and can be reverted.
+ *
+ * Local search explores a neighborhood by applying a move on the current solution, evaluating it and undoing it,
+ * instead of working on a copy of the solution for every neighbor.
+ */
+public interface Move {
+
+    /** Apply this move on the given resource order, transforming it into a new solution. */
+    void applyOn(ResourceOrder order);
+
+    /** Revert this move on a resource order it was just applied on, giving back the original solution. */
+    void undoOn(ResourceOrder order);
+}
@@ -0,0 +1,225 @@
+package jobshop.solvers;
+
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.encodings.EvaluationBuffers;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.List;
+
+/**
+ * Evaluates swaps on a ResourceOrder from the heads and tails of its tasks (Taillard's estimation).
+ *
+ * For every task (identified by job * numTasks + task), the head is its earliest start time and the tail is the
+ * length of the longest path from its end to the end of the schedule. A task is critical iff head + duration + tail
+ * equals the makespan.
+ *
+ * When two adjacent tasks u and v of a critical block are swapped, the new heads and tails of u and v only depend on
+ * their unchanged neighbors, so the longest path going through u or v is computed in O(1). Any other path is left
+ * unchanged and thus no longer than the current makespan. As a consequence the estimate is a lower bound of the
+ * makespan after the swap, and it is exact whenever it is not smaller than the current makespan.
+ *
+ * All buffers are allocated once at construction: update(), criticalSwaps(), estimate() and makespanOf() perform no
+ * allocation, so that a local search built on them runs allocation-free in steady state.
+ */
+class MoveEvaluator {
+
+    private final Instance instance;
+
+    /** duration and machine of each task */
+    private final int[] durations;
+    private final int[] machines;
+    /** earliest start time of each task */
+    private final int[] heads;
+    /** length of the longest path from the end of each task to the end of the schedule */
+    private final int[] tails;
+    /** for each task, the task executed just before (resp. after) it on its machine, -1 if none */
+    private final int[] previousOnMachine;
+    private final int[] nextOnMachine;
+    /** for each task, its index in the sequence of its machine */
+    private final int[] indexOnMachine;
+    /** tasks sorted in topological order */
+    private final int[] sorted;
+
+    /** scratch space for topological sorts, critical path and evaluation from scratch */
+    private final int[] scratchNext;
+    private final int[] scratchDegrees;
+    private final int[] path;
+    private final EvaluationBuffers buffers = new EvaluationBuffers();
+
+    /** all swaps of adjacent tasks, swaps[m * (numJobs-1) + i] exchanging tasks i and i+1 of machine m */
+    private final DescentSolver.Swap[] swaps;
+
+    /** makespan of the last resource order given to update() */
+    private int makespan;
+
+    MoveEvaluator(Instance instance) {
+        this.instance = instance;
+        int numOps = instance.numJobs * instance.numTasks;
+        this.durations = new int[numOps];
+        this.machines = new int[numOps];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                durations[j * instance.numTasks + t] = instance.duration(j, t);
+                machines[j * instance.numTasks + t] = instance.machine(j, t);
+            }
+        }
+        this.heads = new int[numOps];
+        this.tails = new int[numOps];
+        this.previousOnMachine = new int[numOps];
+        this.nextOnMachine = new int[numOps];
+        this.indexOnMachine = new int[numOps];
+        this.sorted = new int[numOps];
+        this.scratchNext = new int[numOps];
+        this.scratchDegrees = new int[numOps];
+        this.path = new int[numOps];
+
+        this.swaps = new DescentSolver.Swap[instance.numMachines * Math.max(0, instance.numJobs - 1)];
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int i = 0 ; i + 1 < instance.numJobs ; i++) {
+                swaps[m * (instance.numJobs - 1) + i] = new DescentSolver.Swap(m, i, i + 1);
+            }
+        }
+    }
+
+    /** Computes heads and tails of all tasks in the given order.
+     * Returns false (and leaves the evaluator in an unspecified state) if the order has a cyclic dependency. */
+    boolean update(ResourceOrder order) {
+        if(!order.topologicalOrder(sorted, scratchNext, scratchDegrees))
+            return false;
+
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int previous = -1;
+            for(int i = 0 ; i < instance.numJobs ; i++) {
+                int op = order.taskId(m, i);
+                indexOnMachine[op] = i;
+                previousOnMachine[op] = previous;
+                if(previous != -1)
+                    nextOnMachine[previous] = op;
+                previous = op;
+            }
+            nextOnMachine[previous] = -1;
+        }
+
+        // heads, from the first to the last task
+        makespan = 0;
+        for(int op : sorted) {
+            int head = Math.max(endOfPreviousOnJob(op), endOf(previousOnMachine[op]));
+            heads[op] = head;
+            makespan = Math.max(makespan, head + durations[op]);
+        }
+        // tails, from the last to the first task
+        for(int i = sorted.length - 1 ; i >= 0 ; i--) {
+            int op = sorted[i];
+            tails[op] = Math.max(tailOfNextOnJob(op), tailOf(nextOnMachine[op]));
+        }
+        return true;
+    }
+
+    /** Makespan of the last resource order given to update(). */
+    int makespan() {
+        return makespan;
+    }
+
+    /** Fills `neighbors` with the swaps of the Nowicki and Smutnicki neighborhood of the last resource order given
+     * to update(). These are the same swaps, in the same order, as the ones given by DescentSolver.neighbors() on
+     * every block of DescentSolver.blocksOfCriticalPath(), but they are read from heads instead of a new Schedule. */
+    void criticalSwaps(List<DescentSolver.Swap> neighbors) {
+        neighbors.clear();
+
+        // the critical path ends with the first job whose last task completes at the makespan
+        int op = -1;
+        for(int j = 0 ; j < instance.numJobs && op == -1 ; j++) {
+            int last = (j + 1) * instance.numTasks - 1;
+            if(endOf(last) == makespan)
+                op = last;
+        }
+        // walk back to a task starting at time 0, preferring the predecessor on the job as Schedule.criticalPath()
+        int length = 0;
+        path[length++] = op;
+        while(heads[op] != 0) {
+            if(op % instance.numTasks != 0 && endOf(op - 1) == heads[op])
+                op = op - 1;
+            else
+                op = previousOnMachine[op];
+            path[length++] = op;
+        }
+
+        // path is stored from its end : blocks are maximal runs of tasks on the same machine
+        int blockEnd = length - 1;
+        for(int i = length - 2 ; i >= -1 ; i--) {
+            if(i >= 0 && machines[path[i]] == machines[path[blockEnd]])
+                continue;
+            int blockStart = i + 1;
+            if(blockEnd > blockStart) {
+                int machine = machines[path[blockEnd]];
+                int firstTask = indexOnMachine[path[blockEnd]];
+                int lastTask = indexOnMachine[path[blockStart]];
+                neighbors.add(swapAt(machine, firstTask));
+                if(lastTask - firstTask + 1 > 2)
+                    neighbors.add(swapAt(machine, lastTask - 1));
+            }
+            blockEnd = i;
+        }
+    }
+
+    private DescentSolver.Swap swapAt(int machine, int index) {
+        return swaps[machine * (instance.numJobs - 1) + index];
+    }
+
+    /** Estimates the makespan of the last resource order given to update() once the given swap is applied.
+     * Swaps of adjacent critical tasks are estimated in O(1) as described above. Other swaps are applied in place,
+     * evaluated exactly and undone, Integer.MAX_VALUE being returned if they lead to a cyclic order. */
+    int estimate(DescentSolver.Swap swap, ResourceOrder order) {
+        int first = Math.min(swap.t1, swap.t2);
+        int second = Math.max(swap.t1, swap.t2);
+        if(second != first + 1) {
+            swap.applyOn(order);
+            int neighborMakespan = makespanOf(order);
+            swap.undoOn(order);
+            return neighborMakespan;
+        }
+
+        // u is executed right before v, they will be executed in the opposite order
+        int u = order.taskId(swap.machine, first);
+        int v = order.taskId(swap.machine, second);
+
+        // new heads : v takes the place of u, u comes right after v
+        int headV = Math.max(endOfPreviousOnJob(v), endOf(previousOnMachine[u]));
+        int headU = Math.max(endOfPreviousOnJob(u), headV + durations[v]);
+        // new tails : u takes the place of v, v comes right before u
+        int tailU = Math.max(tailOfNextOnJob(u), tailOf(nextOnMachine[v]));
+        int tailV = Math.max(tailOfNextOnJob(v), tailU + durations[u]);
+
+        return Math.max(headV + durations[v] + tailV, headU + durations[u] + tailU);
+    }
+
+    /** Makespan of the given resource order computed from scratch, Integer.MAX_VALUE if it has a cyclic dependency.
+     * Heads and tails of the last resource order given to update() are left untouched. */
+    int makespanOf(ResourceOrder order) {
+        return makespanOf(order, Encoding.EXCEEDED);
+    }
+
+    /** Same as makespanOf(order) if the makespan is smaller than `bound`, Encoding.EXCEEDED otherwise. */
+    int makespanOf(ResourceOrder order, int bound) {
+        return order.makespan(bound, buffers);
+    }
+
+    /** End time of the given task, 0 if there is no task (-1). */
+    private int endOf(int op) {
+        return op == -1 ? 0 : heads[op] + durations[op];
+    }
+
+    /** Length of the longest path starting with the given task, 0 if there is no task (-1). */
+    private int tailOf(int op) {
+        return op == -1 ? 0 : durations[op] + tails[op];
+    }
+
+    private int endOfPreviousOnJob(int op) {
+        return op % instance.numTasks == 0 ? 0 : endOf(op - 1);
+    }
+
+    private int tailOfNextOnJob(int op) {
+        return (op + 1) % instance.numTasks == 0 ? 0 : tailOf(op + 1);
+    }
+}
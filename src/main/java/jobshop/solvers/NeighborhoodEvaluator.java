@@ -0,0 +1,133 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Turns the estimated makespans of a neighborhood into exact ones, as far as needed to find its best neighbor.
+ *
+ * Estimates given by a MoveEvaluator are exact as soon as they are not smaller than the current makespan, so only the
+ * neighbors estimated below it need a full evaluation. A neighbor can only be the best one (the first with the smallest
+ * score) if its makespan is not larger than any exact score, nor larger than or equal to a neighbor of smaller index :
+ * evaluations are bounded accordingly, and stop early for most neighbors.
+ *
+ * With more than one thread, those evaluations are spread on a ForkJoin pool where each worker applies moves on its own
+ * scratch copy of the current order. The best neighbor does not depend on the number of threads, as long as callers
+ * break ties on the smallest index.
+ */
+class NeighborhoodEvaluator implements AutoCloseable {
+
+    private final int threads;
+    private final ForkJoinPool pool;
+    private final List<Worker> workers = new ArrayList<>();
+
+    /** shared with the workers during a call to refine() */
+    private ResourceOrder order;
+    private List<? extends Move> moves;
+    private int[] scores;
+    private int[] pending = new int[0];
+    private int numPending;
+    /** one more than the smallest score that is already exact */
+    private int bound;
+
+    NeighborhoodEvaluator(Instance instance, int threads) {
+        this.threads = Math.max(1, threads);
+        this.pool = this.threads > 1 ? new ForkJoinPool(this.threads) : null;
+        for(int i = 0 ; i < this.threads ; i++) {
+            workers.add(new Worker(instance, i));
+        }
+    }
+
+    /** For every i such that scores[i] < threshold, replaces scores[i] with the exact makespan of `order` once
+     * moves[i] is applied, or with Encoding.EXCEEDED if this neighbor cannot be the first one with the smallest score.
+     * `order` is left unchanged. */
+    void refine(ResourceOrder order, List<? extends Move> moves, int[] scores, int threshold) {
+        numPending = 0;
+        int smallestExact = Integer.MAX_VALUE;
+        for(int i = 0 ; i < moves.size() ; i++) {
+            if(scores[i] < threshold) {
+                if(numPending == pending.length)
+                    pending = Arrays.copyOf(pending, Math.max(16, 2 * pending.length));
+                pending[numPending++] = i;
+            } else {
+                smallestExact = Math.min(smallestExact, scores[i]);
+            }
+        }
+        // a neighbor with the same makespan as an exact score may still be the best if its index is smaller
+        this.bound = smallestExact == Integer.MAX_VALUE ? Integer.MAX_VALUE : smallestExact + 1;
+        if(numPending == 0)
+            return;
+
+        this.order = order;
+        this.moves = moves;
+        this.scores = scores;
+        if(pool == null || numPending == 1) {
+            // evaluate in place, on the current order
+            workers.get(0).evaluate(order, 0, numPending);
+        } else {
+            try {
+                for(Future<Void> result : pool.invokeAll(workers)) {
+                    result.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Parallel evaluation of the neighborhood failed", e);
+            }
+        }
+        this.order = null;
+        this.moves = null;
+        this.scores = null;
+    }
+
+    @Override
+    public void close() {
+        if(pool != null)
+            pool.shutdown();
+    }
+
+    /** Evaluates a contiguous share of the pending neighbors on its own scratch order and evaluator. */
+    private class Worker implements Callable<Void> {
+        private final int id;
+        private final ResourceOrder scratch;
+        private final MoveEvaluator evaluator;
+
+        Worker(Instance instance, int id) {
+            this.id = id;
+            this.scratch = new ResourceOrder(instance);
+            this.evaluator = new MoveEvaluator(instance);
+        }
+
+        @Override
+        public Void call() {
+            int from = (int) ((long) numPending * id / threads);
+            int to = (int) ((long) numPending * (id + 1) / threads);
+            if(from < to) {
+                scratch.copyFrom(order);
+                evaluate(scratch, from, to);
+            }
+            return null;
+        }
+
+        /** Scores pending[from..to) by applying each move on the given order, evaluating it and undoing it.
+         * Pending neighbors are in increasing index order : once a makespan is known, later neighbors must be
+         * strictly better to be the best one. */
+        void evaluate(ResourceOrder target, int from, int to) {
+            int workerBound = bound;
+            for(int p = from ; p < to ; p++) {
+                int i = pending[p];
+                Move move = moves.get(i);
+                move.applyOn(target);
+                scores[i] = evaluator.makespanOf(target, workerBound);
+                move.undoOn(target);
+                workerBound = Math.min(workerBound, scores[i]);
+            }
+        }
+    }
+}
@@ -1,39 +1,120 @@
 package jobshop.solvers;
 
 import jobshop.*;
+import jobshop.encodings.EvaluationBuffers;
 import jobshop.encodings.JobNumbers;
 
-import java.util.Optional;
-import java.util.Random;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Samples random job numbers until the deadline and keeps the best one.
+ *
+ * Each thread draws its samples from its own SplittableRandom, split from a master generator of seed 0, and scores
+ * them with JobNumbers.makespan() on its own buffers : sampling allocates nothing, and a Schedule is only built
+ * for the best sample of all threads.
+ */
 public class RandomSolver implements Solver {
 
     @Override
     public Result solve(Instance instance, long deadline) {
-        Random generator = new Random(0);
+        return solve(instance, deadline, 1);
+    }
 
-        JobNumbers sol = new JobNumbers(instance);
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
+        SplittableRandom master = new SplittableRandom(0);
+        AtomicBoolean proved = new AtomicBoolean(false);
+        List<Sampler> samplers = new ArrayList<>();
+        for(int i = 0 ; i < Math.max(1, threads) ; i++) {
+            samplers.add(new Sampler(instance, master.split(), deadline, proved));
+        }
 
-        for(int j = 0 ; j<instance.numJobs ; j++) {
-            for(int t = 0 ; t<instance.numTasks ; t++) {
-                sol.jobs[sol.nextToSet++] = j;
+        if(samplers.size() == 1) {
+            samplers.get(0).call();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(samplers.size());
+            try {
+                for(Future<Void> result : pool.invokeAll(samplers)) {
+                    result.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new RuntimeException("Parallel sampling failed", e);
+            } finally {
+                pool.shutdown();
             }
         }
-        Schedule best = sol.toSchedule();
-        while(deadline - System.currentTimeMillis() > 1) {
-            shuffleArray(sol.jobs, generator);
-            Schedule s = sol.toSchedule();
-            if(s.makespan() < best.makespan()) {
-                best = s;
-            }
+
+        // meilleur échantillon de tous les threads, le premier thread en cas d'égalité
+        Sampler best = samplers.get(0);
+        for(Sampler sampler : samplers) {
+            if(sampler.bestMakespan < best.bestMakespan)
+                best = sampler;
         }
+        JobNumbers sol = new JobNumbers(instance);
+        System.arraycopy(best.bestJobs, 0, sol.jobs, 0, sol.jobs.length);
+        sol.nextToSet = sol.jobs.length;
+        Schedule schedule = sol.toSchedule();
+        assert schedule.makespan() == best.bestMakespan;
+        Result.ExitCause cause = best.bestMakespan <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+        return new Result(instance, schedule, cause);
+    }
 
+    /** Samples job numbers on one thread, keeping the best one. */
+    private static class Sampler implements Callable<Void> {
+        private final SplittableRandom generator;
+        private final long deadline;
+        private final int lowerBound;
+        // partagé par tous les threads : vrai dès que l'un d'eux atteint la borne inférieure
+        private final AtomicBoolean proved;
+        private final EvaluationBuffers buffers = new EvaluationBuffers();
 
-        return new Result(instance, best, Result.ExitCause.Timeout);
+        private final JobNumbers sol;
+        final int[] bestJobs;
+        int bestMakespan;
+
+        Sampler(Instance instance, SplittableRandom generator, long deadline, AtomicBoolean proved) {
+            this.generator = generator;
+            this.deadline = deadline;
+            this.lowerBound = instance.lowerBound();
+            this.proved = proved;
+            this.sol = new JobNumbers(instance);
+            for(int j = 0 ; j<instance.numJobs ; j++) {
+                for(int t = 0 ; t<instance.numTasks ; t++) {
+                    sol.jobs[sol.nextToSet++] = j;
+                }
+            }
+            this.bestJobs = sol.jobs.clone();
+            this.bestMakespan = sol.makespan(Integer.MAX_VALUE, buffers);
+        }
+
+        @Override
+        public Void call() {
+            while(deadline - System.currentTimeMillis() > 1) {
+                if(bestMakespan <= lowerBound)
+                    proved.set(true);
+                if(proved.get())
+                    break;
+                shuffleArray(sol.jobs, generator);
+                // seul un échantillon meilleur que le meilleur courant nous intéresse
+                int makespan = sol.makespan(bestMakespan, buffers);
+                if(makespan < bestMakespan) {
+                    bestMakespan = makespan;
+                    System.arraycopy(sol.jobs, 0, bestJobs, 0, bestJobs.length);
+                }
+            }
+            return null;
+        }
     }
 
     /** Simple Fisher–Yates array shuffling */
-    private static void shuffleArray(int[] array, Random random)
+    private static void shuffleArray(int[] array, SplittableRandom random)
     {
         int index;
         for (int i = array.length - 1; i > 0; i--)
@@ -48,5 +129,3 @@ public class RandomSolver implements Solver {
         }
     }
 }
-
-
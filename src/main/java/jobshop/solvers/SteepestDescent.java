@@ -0,0 +1,60 @@
+package jobshop.solvers;
+
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Steepest descent on the Nowicki and Smutnicki neighborhood, with the neighbors estimated by a MoveEvaluator and
+ * refined by a NeighborhoodEvaluator. The neighborhood and its scores are reused from one call to the next. */
+final class SteepestDescent {
+
+    private final MoveEvaluator evaluator;
+    private final NeighborhoodEvaluator neighborhood;
+    private final List<DescentSolver.Swap> swaps = new ArrayList<>();
+    private int[] scores = new int[0];
+
+    SteepestDescent(MoveEvaluator evaluator, NeighborhoodEvaluator neighborhood) {
+        this.evaluator = evaluator;
+        this.neighborhood = neighborhood;
+    }
+
+    /** Applies the best improving swap on `order` until it is a local optimum or the deadline is reached. The
+     * evaluator must be up to date with `order`, and stays so. Returns the makespan of the resulting order. */
+    int descend(ResourceOrder order, long deadline) {
+        int currentMakeSpan = evaluator.makespan();
+        boolean improved = true;
+        //Tant que l'on trouve un voisin meilleur et qu'il reste du temps
+        while (improved && System.currentTimeMillis() < deadline) {
+            improved = false;
+
+            //On estime le makespan de chaque permutation des blocks du chemin critique de la solution
+            evaluator.criticalSwaps(swaps);
+            if (scores.length < swaps.size()) {
+                scores = new int[2 * swaps.size()];
+            }
+            for (int i = 0; i < swaps.size(); i++) {
+                scores[i] = evaluator.estimate(swaps.get(i), order);
+            }
+            //L'estimation est une borne inférieure : seuls les voisins qui peuvent être meilleurs que la
+            //solution courante sont évalués exactement
+            neighborhood.refine(order, swaps, scores, currentMakeSpan);
+
+            //On sélectionne le meilleur voisin, le premier en cas d'égalité
+            int best = -1;
+            for (int i = 0; i < swaps.size(); i++) {
+                if (scores[i] < currentMakeSpan && (best == -1 || scores[i] < scores[best])) {
+                    best = i;
+                }
+            }
+            //On applique la permutation sur la solution courante si elle est meilleure
+            if (best != -1) {
+                swaps.get(best).applyOn(order);
+                evaluator.update(order);
+                currentMakeSpan = evaluator.makespan();
+                improved = true;
+            }
+        }
+        return currentMakeSpan;
+    }
+}
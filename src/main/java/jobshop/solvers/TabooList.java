@@ -0,0 +1,67 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/** Taboo memory holding the moves of the last `tenure` iterations, in O(tenure) space whatever the size of the
+ * instance.
+ *
+ * A move is forbidden as long as the pair of tasks it puts back in their former order was swapped less than `tenure`
+ * iterations ago. At most one move is added per iteration, so that an entry of the ring is only overwritten once it
+ * has expired : the list behaves exactly as a matrix of expiry iterations indexed by pairs of tasks. */
+final class TabooList {
+
+    private final int tenure;
+    /** pairs of task identifiers (first << 32 | second) and the iteration until which they are taboo */
+    private final long[] pairs;
+    private final int[] expiries;
+    private int next;
+
+    TabooList(int tenure) {
+        this.tenure = tenure;
+        this.pairs = new long[Math.max(1, tenure)];
+        this.expiries = new int[pairs.length];
+        clear();
+    }
+
+    /** Forbids to swap `first` and `second`, `first` being executed right before `second`, until iteration
+     * k + tenure. */
+    void add(int first, int second, int k) {
+        pairs[next] = pair(first, second);
+        expiries[next] = k + tenure;
+        next = (next + 1) % pairs.length;
+    }
+
+    /** True if swapping `first`, executed right before `second`, is taboo at iteration k. */
+    boolean isTaboo(int first, int second, int k) {
+        return expiry(first, second) > k;
+    }
+
+    /** Iteration until which swapping `first`, executed right before `second`, is taboo (not after k if it is
+     * not taboo at iteration k). */
+    int expiry(int first, int second) {
+        long pair = pair(first, second);
+        int expiry = Integer.MIN_VALUE;
+        for(int i = 0 ; i < pairs.length ; i++) {
+            if(pairs[i] == pair)
+                expiry = Math.max(expiry, expiries[i]);
+        }
+        return expiry;
+    }
+
+    /** Copies the content of another list of the same tenure, its iterations being shifted by `shift` >= 0. */
+    void copyFrom(TabooList other, int shift) {
+        System.arraycopy(other.pairs, 0, pairs, 0, pairs.length);
+        for(int i = 0 ; i < expiries.length ; i++)
+            expiries[i] = other.expiries[i] == Integer.MIN_VALUE ? Integer.MIN_VALUE : other.expiries[i] + shift;
+        next = other.next;
+    }
+
+    /** Forgets all moves. */
+    void clear() {
+        Arrays.fill(expiries, Integer.MIN_VALUE);
+    }
+
+    private static long pair(int first, int second) {
+        return (long) first << 32 | (second & 0xFFFFFFFFL);
+    }
+}
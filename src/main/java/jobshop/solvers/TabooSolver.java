@@ -3,88 +3,127 @@ package jobshop.solvers;
 import jobshop.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import jobshop.Instance;
 import jobshop.Result;
 import jobshop.Result.ExitCause;
 import jobshop.encodings.ResourceOrder;
-import jobshop.encodings.Task;
 
+/** Taboo search over the Nowicki and Smutnicki neighborhood, running until the deadline.
+ * When all neighbors are taboo, or when the best solution has not been improved for maxIter iterations, the search
+ * restarts from a random perturbation of the best solution. */
 public class TabooSolver implements Solver {
 
+    // nombre maximal d'itérations sans amélioration avant de repartir de la meilleure solution
     private final int maxIter;
     private final int dureeTaboo;
-    private int[][] Taboo ;
 
     public TabooSolver(int maxIter, int dureeTaboo){
         this.maxIter = maxIter ;
         this.dureeTaboo = dureeTaboo ;
     }
 
-    private void addToTaboo(DescentSolver.Swap swap, ResourceOrder order, int k) {
-        Task a = order.tasksByMachine[swap.machine][swap.t1] ;
-        Task b = order.tasksByMachine[swap.machine][swap.t2] ;
-        Taboo[b.job * order.instance.numTasks+b.task][a.job * order.instance.numTasks + a.task] = k + dureeTaboo ;
+    private void addToTaboo(TabooList Taboo, DescentSolver.Swap swap, ResourceOrder order, int k) {
+        int a = order.taskId(swap.machine, swap.t1) ;
+        int b = order.taskId(swap.machine, swap.t2) ;
+        Taboo.add(b, a, k) ;
     }
 
-    private boolean checkTaboo(DescentSolver.Swap swap, ResourceOrder order, int k) {
-        Task a = order.tasksByMachine[swap.machine][swap.t1] ;
-        Task b = order.tasksByMachine[swap.machine][swap.t2] ;
-        return k < Taboo[a.job * order.instance.numTasks + a.task][b.job * order.instance.numTasks+b.task] ;
+    private boolean checkTaboo(TabooList Taboo, DescentSolver.Swap swap, ResourceOrder order, int k) {
+        int a = order.taskId(swap.machine, swap.t1) ;
+        int b = order.taskId(swap.machine, swap.t2) ;
+        return Taboo.isTaboo(a, b, k) ;
     }
 
     @Override
     public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, 1);
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
         // Initialisation de la solution
         GreedySolver greedySolver = new GreedySolver(GreedySolver.PriorityRule.EST_LRPT);
         // DescentSolver greedySolver = new DescentSolver(GreedySolver.PriorityRule.EST_LRPT);
         ResourceOrder bestOrder = new ResourceOrder(greedySolver.solve(instance, System.currentTimeMillis() + 10).schedule);
         ResourceOrder currentOrder = bestOrder.copy();
 
-        this.Taboo = new int[instance.numJobs * instance.numTasks][instance.numJobs * instance.numTasks] ;
+        // têtes et queues des tâches de la solution courante, pour estimer les voisins sans les copier
+        MoveEvaluator evaluator = new MoveEvaluator(instance);
+        evaluator.update(currentOrder);
+        int bestMakespan = evaluator.makespan();
 
-        int k = 0 ;
-        boolean found = true ;
+        // liste taboo locale à chaque appel : le solveur peut être partagé entre plusieurs threads
+        // (seuls les dureeTaboo derniers mouvements sont retenus, quelle que soit la taille de l'instance)
+        TabooList Taboo = new TabooList(dureeTaboo) ;
 
-        while (k<maxIter && found) {
+        // voisinage et scores, réutilisés d'une itération à l'autre
+        List<DescentSolver.Swap> swaps = new ArrayList<DescentSolver.Swap>() ;
+        int[] scores = new int[0] ;
 
-            found = false ;
+        Random random = new Random(0);
 
-            List<DescentSolver.Block> blocks = DescentSolver.blocksOfCriticalPath(currentOrder);
-            List<DescentSolver.Swap> swaps = new ArrayList<DescentSolver.Swap>() ;
-            for (DescentSolver.Block b : blocks) {
-                swaps.addAll(DescentSolver.neighbors(b)) ;
-            }
+        try (NeighborhoodEvaluator neighborhood = new NeighborhoodEvaluator(instance, threads)) {
+            int k = 0 ;
+            int lastImprovement = 0 ;
+
+            // la recherche continue jusqu'à la fin du temps imparti, ou jusqu'à atteindre la borne inférieure
+            while (System.currentTimeMillis() < deadline) {
+                if (bestMakespan <= instance.lowerBound()) {
+                    return new Result(instance, bestOrder.toSchedule(), ExitCause.ProvedOptimal);
+                }
+
+                evaluator.criticalSwaps(swaps);
+                if (swaps.isEmpty()) {
+                    // aucun voisin : la recherche ne peut pas aller plus loin
+                    return new Result(instance, bestOrder.toSchedule(), ExitCause.Blocked);
+                }
+                if (scores.length < swaps.size()) {
+                    scores = new int[2 * swaps.size()] ;
+                }
+                //estimation du makespan de chaque voisin, les permutations taboo sont exclues
+                for (int i = 0 ; i < swaps.size() ; i++) {
+                    DescentSolver.Swap s = swaps.get(i) ;
+                    scores[i] = checkTaboo(Taboo, s, currentOrder, k) ? Integer.MAX_VALUE : evaluator.estimate(s, currentOrder) ;
+                }
+                //les estimations inférieures au makespan courant ne sont que des bornes : on les évalue exactement
+                neighborhood.refine(currentOrder, swaps, scores, evaluator.makespan()) ;
 
-            ResourceOrder bestNeighboor = new ResourceOrder(instance) ;
-            int bestMakespan = Integer.MAX_VALUE ;
-            DescentSolver.Swap bestSwap = null ;
-            //recherche de meilleur voisin dans le voisinage
-            for (DescentSolver.Swap s : swaps) {
-                //si la permutation n'est pas taboo
-                if (!checkTaboo(s, currentOrder, k)) {
-                    //on mémorise la solution actuelle
-                    ResourceOrder currentNeighboor = currentOrder.copy() ;
-                    s.applyOn(currentNeighboor);
-                    //selection du meilleur voisin
-                    if (currentNeighboor.toSchedule().makespan() < bestMakespan) {
-                        bestMakespan = currentNeighboor.toSchedule().makespan() ;
-                        bestNeighboor = currentNeighboor.copy() ;
-                        bestSwap = s ;
-                        found = true ;
+                //recherche de meilleur voisin dans le voisinage, le premier en cas d'égalité
+                DescentSolver.Swap bestSwap = null ;
+                int bestNeighboorMakespan = Integer.MAX_VALUE ;
+                for (int i = 0 ; i < swaps.size() ; i++) {
+                    if (scores[i] < bestNeighboorMakespan) {
+                        bestNeighboorMakespan = scores[i] ;
+                        bestSwap = swaps.get(i) ;
                     }
                 }
+
+                if (bestSwap == null || k - lastImprovement >= maxIter) {
+                    //tous les voisins sont taboo ou pas d'amélioration depuis maxIter itérations : on repart de la
+                    //meilleure solution perturbée, en oubliant les mouvements taboo (ils expirent tous avant k)
+                    currentOrder.copyFrom(bestOrder) ;
+                    evaluator.update(currentOrder) ;
+                    DescentSolver.perturb(currentOrder, evaluator, swaps, random, 1 + random.nextInt(DescentSolver.MAX_PERTURBATION)) ;
+                    k += dureeTaboo ;
+                    lastImprovement = k ;
+                    continue ;
+                }
+
+                //on ajoute au mouvement taboo
+                addToTaboo(Taboo, bestSwap, currentOrder, k) ;
+                //on se déplace vers le meilleur voisin
+                bestSwap.applyOn(currentOrder);
+                evaluator.update(currentOrder);
+                if (evaluator.makespan() < bestMakespan) {
+                    bestMakespan = evaluator.makespan() ;
+                    bestOrder.copyFrom(currentOrder) ;
+                    lastImprovement = k ;
+                }
+                k++;
             }
-            //on ajoute au mouvement taboo
-            if (bestSwap != null) {
-                addToTaboo(bestSwap, currentOrder, k) ;
-            }
-            currentOrder = bestNeighboor;
-            if (bestMakespan < bestOrder.toSchedule().makespan()) {
-                bestOrder = bestNeighboor.copy() ;
-            }
-            k++;
         }
-        return new Result(instance, bestOrder.toSchedule(), ExitCause.Blocked);
+        return new Result(instance, bestOrder.toSchedule(), ExitCause.Timeout);
     }
 }
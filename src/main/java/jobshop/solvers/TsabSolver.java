@@ -0,0 +1,285 @@
+package jobshop.solvers;
+
+import jobshop.*;
+import jobshop.Result.ExitCause;
+import jobshop.encodings.ResourceOrder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Taboo search with back jump tracking (TSAB) of Nowicki and Smutnicki, running until the deadline.
+ *
+ * Each iteration moves to the best neighbor of the Nowicki and Smutnicki neighborhood that is not taboo. A taboo
+ * neighbor is allowed if it is better than the best solution found so far (aspiration), and when all neighbors are
+ * taboo, the one whose taboo status expires first is chosen. Whenever the best solution improves, it is pushed on a
+ * bounded list of elite solutions, along with its taboo list and the moves that were not chosen from it. After
+ * maxIter iterations without improvement, the search jumps back to the last elite solution and follows its best
+ * unexplored move. Once all elite solutions are exhausted, it restarts from a random perturbation of the best one.
+ */
+public class TsabSolver implements Solver {
+
+    // nombre maximal d'itérations sans amélioration avant de revenir à une solution élite
+    private final int maxIter;
+    private final int dureeTaboo;
+    // nombre maximal de solutions élites retenues
+    private final int eliteSize;
+
+    public TsabSolver(int maxIter, int dureeTaboo, int eliteSize) {
+        this.maxIter = maxIter;
+        this.dureeTaboo = dureeTaboo;
+        this.eliteSize = eliteSize;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+        return solve(instance, deadline, 1);
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline, int threads) {
+        GreedySolver greedySolver = new GreedySolver(GreedySolver.PriorityRule.EST_LRPT);
+        ResourceOrder start = new ResourceOrder(greedySolver.solve(instance, -1).schedule);
+        Search search = new Search(this, start, 0);
+        try (NeighborhoodEvaluator neighborhood = new NeighborhoodEvaluator(instance, threads)) {
+            while (System.currentTimeMillis() < deadline) {
+                if (search.bestMakespan <= instance.lowerBound()) {
+                    // la borne inférieure est atteinte : inutile de chercher plus loin
+                    return new Result(instance, search.bestOrder.toSchedule(), ExitCause.ProvedOptimal);
+                }
+                if (!search.iterate(neighborhood)) {
+                    // aucun voisin : la recherche ne peut pas aller plus loin
+                    return new Result(instance, search.bestOrder.toSchedule(), ExitCause.Blocked);
+                }
+            }
+            return new Result(instance, search.bestOrder.toSchedule(), ExitCause.Timeout);
+        }
+    }
+
+    /** Elite solution, with the taboo list and the iteration at which it was stored, and its unexplored moves. */
+    private static final class Elite {
+        final ResourceOrder order;
+        final TabooList taboo;
+        final List<DescentSolver.Swap> moves = new ArrayList<>();
+        int iteration;
+
+        Elite(Instance instance, int dureeTaboo) {
+            this.order = new ResourceOrder(instance);
+            this.taboo = new TabooList(dureeTaboo);
+        }
+    }
+
+    /** State of one search : all buffers, elite solutions included, are allocated once. */
+    static final class Search {
+        private final int maxIter;
+        private final int dureeTaboo;
+
+        final ResourceOrder bestOrder;
+        final ResourceOrder currentOrder;
+        final MoveEvaluator evaluator;
+        final TabooList taboo;
+        int bestMakespan;
+
+        // pile bornée des solutions élites : la plus ancienne est écrasée quand elle est pleine
+        final Elite[] elites;
+        int newest = 0;
+        int numElites = 0;
+
+        // voisinage et scores, réutilisés d'une itération à l'autre
+        final List<DescentSolver.Swap> swaps = new ArrayList<>();
+        int[] scores = new int[0];
+        final Random random;
+
+        int k = 0;
+        int lastImprovement = 0;
+        // vrai si la solution courante est une nouvelle meilleure solution, pas encore retenue comme élite
+        boolean improved = false;
+
+        /** Search starting from the given order with the parameters of the given solver, perturbations being drawn
+         * from a generator of the given seed. */
+        Search(TsabSolver parameters, ResourceOrder start, long seed) {
+            this.maxIter = parameters.maxIter;
+            this.dureeTaboo = parameters.dureeTaboo;
+            this.taboo = new TabooList(dureeTaboo);
+            this.random = new Random(seed);
+            this.bestOrder = start.copy();
+            this.currentOrder = start.copy();
+            this.evaluator = new MoveEvaluator(start.instance);
+            evaluator.update(currentOrder);
+            this.bestMakespan = evaluator.makespan();
+            this.elites = new Elite[Math.max(1, parameters.eliteSize)];
+            for(int i = 0 ; i < elites.length ; i++)
+                elites[i] = new Elite(start.instance, dureeTaboo);
+        }
+
+        /** Performs one iteration of the search. Returns false if the current solution has no neighbor, in which
+         * case its makespan is the length of a job and it is optimal. */
+        boolean iterate(NeighborhoodEvaluator neighborhood) {
+            if (k - lastImprovement >= maxIter) {
+                if (numElites > 0) {
+                    backJump(neighborhood);
+                } else {
+                    //plus de solution élite à explorer : on repart de la meilleure solution perturbée
+                    currentOrder.copyFrom(bestOrder);
+                    evaluator.update(currentOrder);
+                    taboo.clear();
+                    DescentSolver.perturb(currentOrder, evaluator, swaps, random, 1 + random.nextInt(DescentSolver.MAX_PERTURBATION));
+                    lastImprovement = k;
+                    improved = false;
+                }
+                return true;
+            }
+
+            evaluator.criticalSwaps(swaps);
+            if (swaps.isEmpty()) {
+                return false;
+            }
+            int best = selectMove(neighborhood);
+            if (improved) {
+                pushElite(best);
+            }
+            moveTo(swaps.get(best));
+            return true;
+        }
+
+        /** Continues the search from the given order, which becomes the best solution if it is better. */
+        void moveTo(ResourceOrder order) {
+            currentOrder.copyFrom(order);
+            evaluator.update(currentOrder);
+            taboo.clear();
+            lastImprovement = k;
+            improved = false;
+            if (evaluator.makespan() < bestMakespan) {
+                bestMakespan = evaluator.makespan();
+                bestOrder.copyFrom(currentOrder);
+                improved = true;
+            }
+        }
+
+        /** Index of the neighbor to move to in `swaps`, as described in the class documentation. */
+        int selectMove(NeighborhoodEvaluator neighborhood) {
+            if (scores.length < swaps.size()) {
+                scores = new int[2 * swaps.size()];
+            }
+            int currentMakespan = evaluator.makespan();
+            for (int i = 0; i < swaps.size(); i++) {
+                DescentSolver.Swap s = swaps.get(i);
+                scores[i] = isTaboo(s) ? Integer.MAX_VALUE : evaluator.estimate(s, currentOrder);
+            }
+            neighborhood.refine(currentOrder, swaps, scores, currentMakespan);
+
+            //meilleur voisin non taboo, le premier en cas d'égalité
+            int best = -1;
+            for (int i = 0; i < swaps.size(); i++) {
+                if (scores[i] != Integer.MAX_VALUE && (best == -1 || scores[i] < scores[best])) {
+                    best = i;
+                }
+            }
+
+            //critère d'aspiration : un voisin taboo est accepté s'il est meilleur que la meilleure solution
+            for (int i = 0; i < swaps.size(); i++) {
+                DescentSolver.Swap s = swaps.get(i);
+                if (!isTaboo(s))
+                    continue;
+                int bound = best == -1 ? bestMakespan : Math.min(bestMakespan, scores[best]);
+                // l'estimation est une borne inférieure, inutile d'évaluer si elle n'est pas meilleure
+                if (evaluator.estimate(s, currentOrder) >= bound)
+                    continue;
+                s.applyOn(currentOrder);
+                int makespan = evaluator.makespanOf(currentOrder, bound);
+                s.undoOn(currentOrder);
+                if (makespan < bound) {
+                    scores[i] = makespan;
+                    best = i;
+                }
+            }
+
+            //tous les voisins sont taboo : on prend celui dont l'interdiction expire le plus tôt
+            if (best == -1) {
+                int earliest = Integer.MAX_VALUE;
+                for (int i = 0; i < swaps.size(); i++) {
+                    DescentSolver.Swap s = swaps.get(i);
+                    int expiry = taboo.expiry(currentOrder.taskId(s.machine, s.t1), currentOrder.taskId(s.machine, s.t2));
+                    if (expiry < earliest) {
+                        earliest = expiry;
+                        best = i;
+                    }
+                }
+            }
+            return best;
+        }
+
+        boolean isTaboo(DescentSolver.Swap swap) {
+            return taboo.isTaboo(currentOrder.taskId(swap.machine, swap.t1), currentOrder.taskId(swap.machine, swap.t2), k);
+        }
+
+        /** Applies the move on the current solution, making its inverse taboo. */
+        void moveTo(DescentSolver.Swap swap) {
+            int a = currentOrder.taskId(swap.machine, swap.t1);
+            int b = currentOrder.taskId(swap.machine, swap.t2);
+            taboo.add(b, a, k);
+            swap.applyOn(currentOrder);
+            evaluator.update(currentOrder);
+            if (evaluator.makespan() < bestMakespan) {
+                bestMakespan = evaluator.makespan();
+                bestOrder.copyFrom(currentOrder);
+                lastImprovement = k;
+                improved = true;
+            }
+            k++;
+        }
+
+        /** Stores the current solution as an elite one, with all its moves except the chosen one. */
+        void pushElite(int chosen) {
+            newest = (newest + 1) % elites.length;
+            numElites = Math.min(numElites + 1, elites.length);
+            Elite elite = elites[newest];
+            elite.order.copyFrom(currentOrder);
+            elite.taboo.copyFrom(taboo, 0);
+            elite.iteration = k;
+            elite.moves.clear();
+            for (int i = 0; i < swaps.size(); i++) {
+                if (i != chosen)
+                    elite.moves.add(swaps.get(i));
+            }
+            if (elite.moves.isEmpty())
+                popElite();
+            improved = false;
+        }
+
+        void popElite() {
+            newest = (newest - 1 + elites.length) % elites.length;
+            numElites--;
+        }
+
+        /** Goes back to the last elite solution and follows its best unexplored move. */
+        void backJump(NeighborhoodEvaluator neighborhood) {
+            Elite elite = elites[newest];
+            currentOrder.copyFrom(elite.order);
+            evaluator.update(currentOrder);
+            taboo.copyFrom(elite.taboo, k - elite.iteration);
+
+            List<DescentSolver.Swap> moves = elite.moves;
+            if (scores.length < moves.size()) {
+                scores = new int[2 * moves.size()];
+            }
+            for (int i = 0; i < moves.size(); i++) {
+                scores[i] = evaluator.estimate(moves.get(i), currentOrder);
+            }
+            neighborhood.refine(currentOrder, moves, scores, evaluator.makespan());
+            int best = 0;
+            for (int i = 1; i < moves.size(); i++) {
+                if (scores[i] < scores[best])
+                    best = i;
+            }
+            DescentSolver.Swap move = moves.remove(best);
+            if (moves.isEmpty())
+                popElite();
+
+            lastImprovement = k;
+            improved = false;
+            moveTo(move);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Scanner;
+import java.util.stream.Collectors;
+
+public class InstanceTests {
+
+    /** Previous implementation of Instance.fromFile(), based on a Scanner per line. */
+    private static Instance fromFileWithScanner(Path path) throws IOException {
+        Iterator<String> lines = Files.readAllLines(path).stream()
+                .filter(l -> !l.startsWith("#"))
+                .collect(Collectors.toList())
+                .iterator();
+
+        Scanner header = new Scanner(lines.next());
+        Instance pb = new Instance(header.nextInt(), header.nextInt());
+        for(int job = 0 ; job<pb.numJobs ; job++) {
+            Scanner line = new Scanner(lines.next());
+            for(int task = 0 ; task < pb.numTasks ; task++) {
+                pb.machines[job][task] = line.nextInt();
+                pb.durations[job][task] = line.nextInt();
+            }
+        }
+        return pb;
+    }
+
+    private static boolean sameInstance(Instance a, Instance b) {
+        return a.numJobs == b.numJobs && a.numTasks == b.numTasks
+                && Arrays.deepEquals(a.machines, b.machines)
+                && Arrays.deepEquals(a.durations, b.durations);
+    }
+
+    @Test
+    public void testTextAndBinaryFormats() throws IOException {
+        for(String name : BestKnownResult.instances) {
+            Path path = Paths.get("instances/" + name);
+            Instance instance = Instance.fromFile(path);
+            assert sameInstance(instance, fromFileWithScanner(path)) : name;
+
+            // on some systems, a mapped file can neither be overwritten nor deleted until the garbage collector
+            // unmaps it : each instance gets its own file, deleted on exit
+            Path binary = Files.createTempFile(name, ".bin");
+            binary.toFile().deleteOnExit();
+            instance.toBinaryFile(binary);
+            Instance loaded = Instance.fromFile(binary);
+            assert sameInstance(instance, loaded) : name;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                for(int task = 0 ; task < instance.numTasks ; task++) {
+                    assert loaded.task_with_machine(job, loaded.machine(job, task)) == task;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTaillardGenerator() throws IOException {
+        for(int i = 1 ; i <= 80 ; i++) {
+            String name = String.format("ta%02d", i);
+            assert sameInstance(TaillardGenerator.taillard(i), Instance.fromFile(Paths.get("instances/" + name))) : name;
+        }
+    }
+
+    @Test
+    public void testLowerBound() throws IOException {
+        // 2 jobs on 2 machines, (0,3) (1,2) and (1,2) (0,3) : the optimal makespan is 6, both first tasks running
+        // in parallel, and it is found by the bounds
+        Instance small = new Instance(2, 2);
+        small.machines[0] = new int[] {0, 1};
+        small.durations[0] = new int[] {3, 2};
+        small.machines[1] = new int[] {1, 0};
+        small.durations[1] = new int[] {2, 3};
+        small.computeTables();
+        assert LowerBound.jobLength(small) == 5;
+        assert LowerBound.machineLoad(small) == 6;
+        assert LowerBound.jackson(small) == 6;
+        assert small.lowerBound() == 6;
+
+        for(Path path : Files.list(Paths.get("instances")).sorted().collect(Collectors.toList())) {
+            String name = path.getFileName().toString();
+            if(!BestKnownResult.isKnown(name))
+                continue;
+            Instance instance = Instance.fromFile(path);
+            assert LowerBound.jackson(instance) >= LowerBound.machineLoad(instance) : name;
+            assert instance.lowerBound() <= BestKnownResult.of(name) : name;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package jobshop;
+
+import jobshop.encodings.JobNumbers;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ScheduleTests {
+
+    /** Previous implementation of Schedule.isValid(), comparing all pairs of tasks on each machine. */
+    private static boolean isValidPairwise(Schedule s) {
+        Instance pb = s.pb;
+        for(int j = 0 ; j<pb.numJobs ; j++) {
+            for(int t = 1 ; t<pb.numTasks ; t++) {
+                if(s.startTime(j, t-1) + pb.duration(j, t-1) > s.startTime(j, t))
+                    return false;
+            }
+            for(int t = 0 ; t<pb.numTasks ; t++) {
+                if(s.startTime(j, t) < 0)
+                    return false;
+            }
+        }
+        for (int machine = 0 ; machine < pb.numMachines ; machine++) {
+            for(int j1=0 ; j1<pb.numJobs ; j1++) {
+                int t1 = pb.task_with_machine(j1, machine);
+                for(int j2=j1+1 ; j2<pb.numJobs ; j2++) {
+                    int t2 = pb.task_with_machine(j2, machine);
+                    boolean t1_first = s.startTime(j1, t1) + pb.duration(j1, t1) <= s.startTime(j2, t2);
+                    boolean t2_first = s.startTime(j2, t2) + pb.duration(j2, t2) <= s.startTime(j1, t1);
+                    if(!t1_first && !t2_first)
+                        return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Start times of a random semi-active schedule, with a few tasks moved to nearby dates. */
+    private static int[][] randomTimes(Instance instance, Random random) {
+        JobNumbers enc = new JobNumbers(instance);
+        int[] remaining = new int[instance.numJobs];
+        Arrays.fill(remaining, instance.numTasks);
+        while(enc.nextToSet < enc.jobs.length) {
+            int job = random.nextInt(instance.numJobs);
+            if(remaining[job]-- > 0)
+                enc.jobs[enc.nextToSet++] = job;
+        }
+        Schedule schedule = enc.toSchedule();
+        int[][] times = new int[instance.numJobs][instance.numTasks];
+        for(int j = 0 ; j < instance.numJobs ; j++) {
+            for(int t = 0 ; t < instance.numTasks ; t++) {
+                times[j][t] = schedule.startTime(j, t);
+            }
+        }
+        for(int i = random.nextInt(3) ; i > 0 ; i--) {
+            int j = random.nextInt(instance.numJobs);
+            int t = random.nextInt(instance.numTasks);
+            times[j][t] = Math.max(-1, times[j][t] + random.nextInt(11) - 5);
+        }
+        return times;
+    }
+
+    @Test
+    public void testIsValid() throws IOException {
+        Random random = new Random(0);
+        int numInvalid = 0;
+        for(String name : new String[]{"aaa1", "ft06", "la21", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            for(int i = 0 ; i < 500 ; i++) {
+                Schedule schedule = new Schedule(instance, randomTimes(instance, random));
+                assert schedule.isValid() == isValidPairwise(schedule);
+                if(!schedule.isValid())
+                    numInvalid++;
+            }
+        }
+
+        // small instances with tasks of null duration, which may start at the same time as another task
+        for(int i = 0 ; i < 2000 ; i++) {
+            Instance instance = new Instance(2 + random.nextInt(4), 2 + random.nextInt(3));
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    instance.machines[j][t] = t;
+                    instance.durations[j][t] = random.nextInt(3);
+                }
+                // shuffle the machines of the job
+                for(int t = instance.numTasks - 1 ; t > 0 ; t--) {
+                    int other = random.nextInt(t + 1);
+                    int machine = instance.machines[j][t];
+                    instance.machines[j][t] = instance.machines[j][other];
+                    instance.machines[j][other] = machine;
+                }
+            }
+            instance.computeTables();
+            Schedule schedule = new Schedule(instance, randomTimes(instance, random));
+            assert schedule.isValid() == isValidPairwise(schedule);
+        }
+        // both valid and invalid schedules have been checked
+        assert numInvalid > 0 && numInvalid < 2000;
+    }
+}
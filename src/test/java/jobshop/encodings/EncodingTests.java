@@ -1,5 +1,6 @@
 package jobshop.encodings;
 
+import jobshop.Encoding;
 import jobshop.Instance;
 import jobshop.Result;
 import jobshop.Schedule;
@@ -9,6 +10,7 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Random;
 
 public class EncodingTests {
 
@@ -72,4 +74,99 @@ public class EncodingTests {
         assert result.schedule.makespan() == sched.makespan(); // should have the same makespan
     }
 
-}
+    @Test
+    public void testResourceOrder() throws IOException {
+        for(String name : new String[] {"aaa1", "ft06", "la21", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+
+            // a resource order built from a schedule should give back the exact same schedule
+            Schedule sched = new BasicSolver().solve(instance, System.currentTimeMillis() + 10).schedule;
+            ResourceOrder order = new ResourceOrder(sched);
+            Schedule rebuilt = order.toSchedule();
+
+            assert rebuilt.isValid();
+            assert rebuilt.makespan() == sched.makespan();
+            for(int j = 0 ; j < instance.numJobs ; j++) {
+                for(int t = 0 ; t < instance.numTasks ; t++) {
+                    assert rebuilt.startTime(j, t) == sched.startTime(j, t);
+                }
+            }
+        }
+
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // machine 0 : (1,1) (0,0) and machine 1 : (0,1) (1,0) form a cycle (0,0) -> (0,1) -> (1,0) -> (1,1) -> (0,0)
+        ResourceOrder cyclic = new ResourceOrder(instance);
+        cyclic.setTask(0, 0, new Task(1, 1));
+        cyclic.setTask(0, 1, new Task(0, 0));
+        cyclic.setTask(1, 0, new Task(0, 1));
+        cyclic.setTask(1, 1, new Task(1, 0));
+        cyclic.setTask(2, 0, new Task(0, 2));
+        cyclic.setTask(2, 1, new Task(1, 2));
+        assert cyclic.toSchedule() == null;
+        assert cyclic.makespan() == Encoding.EXCEEDED;
+    }
+
+    @Test
+    public void testMakespan() throws IOException {
+        // buffers reused across instances of different sizes
+        EvaluationBuffers buffers = new EvaluationBuffers();
+        Random random = new Random(0);
+        for(String name : new String[] {"ta51", "aaa1", "ft06", "la21"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            JobNumbers jobs = new JobNumbers(new BasicSolver().solve(instance, System.currentTimeMillis() + 10).schedule);
+            for(int i = 0 ; i < 100 ; i++) {
+                // random job numbers and the corresponding resource order
+                for(int k = jobs.jobs.length - 1 ; k > 0 ; k--) {
+                    int other = random.nextInt(k + 1);
+                    int job = jobs.jobs[k];
+                    jobs.jobs[k] = jobs.jobs[other];
+                    jobs.jobs[other] = job;
+                }
+                Schedule sched = jobs.toSchedule();
+                ResourceOrder order = new ResourceOrder(sched);
+
+                assert jobs.makespan() == sched.makespan();
+                assert order.makespan() == sched.makespan();
+                assert order.makespan(Integer.MAX_VALUE, buffers) == sched.makespan();
+
+                // bounded evaluations are exact below the bound
+                int bound = sched.makespan() - 5 + random.nextInt(11);
+                for(Encoding enc : new Encoding[] {jobs, order, new DisjunctiveGraph(order)}) {
+                    int bounded = enc.makespan(bound, buffers);
+                    assert bounded == (sched.makespan() < bound ? sched.makespan() : Encoding.EXCEEDED);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDisjunctiveGraph() throws IOException {
+        for(String name : new String[] {"aaa1", "ft06", "la21", "ta51"}) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Schedule sched = new BasicSolver().solve(instance, System.currentTimeMillis() + 10).schedule;
+
+            // conversions from and to the other encodings preserve the schedule
+            DisjunctiveGraph graph = new DisjunctiveGraph(new JobNumbers(sched));
+            assert graph.makespan() == sched.makespan();
+            assert graph.toResourceOrder().toSchedule().makespan() == sched.makespan();
+            assert graph.toJobNumbers().toSchedule().makespan() == sched.makespan();
+
+            // after each swap, incrementally updated heads and tails match the ones of a graph built from scratch
+            Random random = new Random(0);
+            for(int i = 0 ; i < 200 ; i++) {
+                int task = random.nextInt(instance.numJobs * instance.numTasks);
+                graph.swap(task);
+
+                ResourceOrder order = graph.toResourceOrder();
+                DisjunctiveGraph fresh = new DisjunctiveGraph(order);
+                assert graph.makespan() == order.toSchedule().makespan();
+                for(int op = 0 ; op < instance.numJobs * instance.numTasks ; op++) {
+                    assert graph.head(op) == fresh.head(op);
+                    assert graph.tail(op) == fresh.tail(op);
+                }
+            }
+        }
+    }
+
+}
\ No newline at end of file